@@ -0,0 +1,74 @@
+package com.flappybird;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.flappybird.sim.GameSimulation;
+import com.flappybird.sim.InputPolicy;
+
+// A full gameplay frame drawn offscreen into a BufferedImage, the same drawFrame the panel paints with.
+// Headless, so sprites come from the atlas' plain images rather than VRAM; this tracks the
+// software cost of a frame, not what a given display and driver add on top.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+    // PLAYING: mid-run with pipes on screen; GAME_OVER: the final frame with its messages
+    @Param({"PLAYING", "GAME_OVER"})
+    public String screen;
+
+    @Param({"INT_RGB", "INT_ARGB_PRE"})
+    public String imageType;
+
+    private final GameSimulation simulation = new GameSimulation(1);
+    private final int birdSprite = SpriteAtlas.bird(0);
+    private BufferedImage frame;
+    private Graphics2D g;
+
+    @Setup
+    public void setUp() {
+        boolean gameOver = screen.equals("GAME_OVER");
+        // Play the bot until it reaches the wanted screen, trying further seeds if it dies too early
+        for (long seed = 1; ; seed++) {
+            simulation.reset(seed);
+            simulation.start();
+            InputPolicy policy = InputPolicy.gapFollower(40, 6, seed);
+            while (!simulation.isGameOver() && (gameOver || simulation.getTick() < 600)) {
+                simulation.step(policy.flap(simulation));
+            }
+            if (gameOver || !simulation.isGameOver()) break;
+        }
+
+        frame = new BufferedImage(FlappyBird.BOARD_WIDTH, FlappyBird.BOARD_HEIGHT,
+                imageType.equals("INT_RGB") ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        g = frame.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage drawFrame() {
+        FlappyBird.drawFrame(g, null, simulation, birdSprite, true, 0.5);
+        return frame;
+    }
+}
@@ -0,0 +1,75 @@
+package com.flappybird;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The software side of sound latency: from a trigger to the effect's first samples sitting in a
+// mixed output chunk. The output line's own buffer (four chunks, ~23ms) comes on top of this and
+// depends on the device, so no output line is opened and the benchmark runs without audio hardware.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SoundBenchmark {
+    private static final String JUMP = "/resources/sfx/jump.wav";
+    private static final String[] EFFECTS = {
+        "/resources/sfx/jump.wav",
+        "/resources/sfx/passpipe.wav",
+        "/resources/sfx/gameover.wav",
+        "/resources/sfx/menuclick.wav",
+    };
+
+    private final SoundEngine engine = SoundEngine.getInstance();
+    private final int[] mix = new int[SoundEngine.CHUNK_FRAMES * SoundEngine.CHANNELS];
+    private final byte[] out = new byte[mix.length * 2];
+
+    @Setup
+    public void setUp() {
+        // Decode up front so the first trigger is not timed with a WAV decode
+        for (String effect : EFFECTS) {
+            engine.startVoice(effect, false);
+            engine.stop(effect);
+        }
+    }
+
+    // A jump sound from trigger to mixed bytes, the only voice playing
+    @Benchmark
+    public byte[] triggerToMixedChunk() {
+        engine.startVoice(JUMP, false);
+        engine.mixChunk(mix, out);
+        engine.stop(JUMP);
+        return out;
+    }
+
+    // Every voice looping, so each mix pass sums the most the engine ever mixes
+    @State(Scope.Thread)
+    public static class AllVoicesBusy {
+        // Takes the benchmark state so this runs after its setup has stopped the decoding voices
+        @Setup
+        public void setUp(SoundBenchmark benchmark) {
+            for (String effect : EFFECTS) {
+                SoundEngine.getInstance().startVoice(effect, true);
+                SoundEngine.getInstance().startVoice(effect, true);
+            }
+        }
+    }
+
+    // One mix pass at full polyphony, the mixer thread's work per ~6ms chunk
+    @Benchmark
+    public byte[] mixAllVoices(AllVoicesBusy busy) {
+        engine.mixChunk(mix, out);
+        return out;
+    }
+}
@@ -0,0 +1,22 @@
+package com.flappybird.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Entry point of benchmarks.jar: the stock JMH runner, except that results are written as JSON
+// (to jmh-result.json) unless a result format is given, so every run leaves a file to track trends with.
+// Usage: java -jar benchmarks.jar [JMH options] [benchmark regexps], e.g. "Simulation" or "-l" to list
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (!jmhArgs.contains("-rf")) {
+            jmhArgs.add(0, "-rf");
+            jmhArgs.add(1, "json");
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,121 @@
+package com.flappybird.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.flappybird.sim.XorShiftRandom;
+
+// Leaderboard loads and rank queries through the game's own pool, migrations and SQL, against an
+// in-memory H2 database in MySQL mode. H2 plans differ from InnoDB's, so these catch regressions
+// in our code and query shapes; absolute numbers say little about the production server.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+    private static final int PAGE_SIZE = 50;
+    private static final int INSERT_BATCH = 1_000;
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private final LeaderboardRepository repository = new LeaderboardRepository();
+    private final RankIndex rankIndex = new RankIndex();
+    private LeaderboardEntry middle;
+    private int middleOffset;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:leaderboard" + rows + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        DatabaseConnection.setPool(new ConnectionPool(() -> DriverManager.getConnection(url), 4, 60_000));
+        new SchemaMigrator().migrate();
+
+        // Scores skewed low like real play: most runs end early, a few go long
+        XorShiftRandom random = new XorShiftRandom(7);
+        try (Connection conn = DriverManager.getConnection(url);
+             PreparedStatement insert = conn.prepareStatement("INSERT INTO leaderboard (name, score) VALUES (?, ?)")) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < rows; i++) {
+                double r = random.nextDouble();
+                insert.setString(1, "player" + i);
+                insert.setInt(2, (int) (r * r * r * 300));
+                insert.addBatch();
+                if ((i + 1) % INSERT_BATCH == 0) insert.executeBatch();
+            }
+            insert.executeBatch();
+            conn.commit();
+        }
+
+        middleOffset = rows / 2;
+        middle = repository.loadPageAt(middleOffset, 1).get(0);
+        repository.loadRankIndex(rankIndex);
+    }
+
+    @TearDown
+    public void tearDown() {
+        DatabaseConnection.setPool(null);
+    }
+
+    // The first page, as the leaderboard opens
+    @Benchmark
+    public List<LeaderboardEntry> firstPage() throws SQLException {
+        return repository.loadPageAt(0, PAGE_SIZE);
+    }
+
+    // Jumping straight to the middle of the table, the offset path
+    @Benchmark
+    public List<LeaderboardEntry> pageAtOffset() throws SQLException {
+        return repository.loadPageAt(middleOffset, PAGE_SIZE);
+    }
+
+    // Scrolling on from the middle of the table, the keyset path
+    @Benchmark
+    public List<LeaderboardEntry> pageAfterRow() throws SQLException {
+        return repository.loadPageAfter(middle, PAGE_SIZE);
+    }
+
+    // Position of one row in the whole table
+    @Benchmark
+    public int rankQuery() throws SQLException {
+        return repository.countRankedBefore(middle);
+    }
+
+    // Substring search over names, ranked against the whole table
+    @Benchmark
+    public List<LeaderboardEntry> nameSearch() throws SQLException {
+        return repository.filterByName("er12", PAGE_SIZE);
+    }
+
+    // Rebuilding the in-memory rank index from the score histogram, as at startup
+    @Benchmark
+    public RankIndex loadRankIndex() throws SQLException {
+        RankIndex index = new RankIndex();
+        repository.loadRankIndex(index);
+        return index;
+    }
+
+    // The same rank answered from the in-memory index instead of SQL
+    @Benchmark
+    public int rankFromIndex() {
+        return rankIndex.countAbove(middle.score());
+    }
+}
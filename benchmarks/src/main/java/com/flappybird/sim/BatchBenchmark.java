@@ -0,0 +1,49 @@
+package com.flappybird.sim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A batch of bot games on the shipped curve at several thread counts, to see how BatchSimulator
+// scales. Every batch plays the same seeds, so each thread count does exactly the same work.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+    private static final int GAMES = 2_000;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private BatchSimulator simulator;
+
+    @Setup
+    public void setUp() {
+        long maxTicks = 60L * 60 * GameSimulation.TICKS_PER_SECOND; // An hour of play
+        simulator = new BatchSimulator(threads, Difficulty.DEFAULT, seed -> InputPolicy.gapFollower(40, 6, seed), maxTicks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        simulator.shutdown();
+    }
+
+    @Benchmark
+    public BatchResult batch() {
+        return simulator.run(0, GAMES);
+    }
+}
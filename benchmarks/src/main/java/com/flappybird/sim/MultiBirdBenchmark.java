@@ -0,0 +1,216 @@
+package com.flappybird.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The baseline for SimulationBenchmark.multiBirdTick: MultiBirdWorld's rules written the way the
+// game used to be, one Bird object and one Pipe object per entity in lists. The flock, sizes and
+// tap inputs match multiBirdTick, so the two scores compare directly. Before anything is timed,
+// both layouts fly the same flock through the same seeded pipe fields and must agree bird for bird.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiBirdBenchmark {
+    private static final int GRAVITY = 1;
+    private static final int PIPE_VELOCITY_X = -4;
+    private static final int FLAP_VELOCITY_Y = -9;
+
+    @Param({"1024", "16384"})
+    public int birds;
+
+    private ObjectWorld objects;
+    private boolean[] flaps;
+
+    // Random taps, about one tick in twenty, read from a table so generating inputs costs little
+    // next to the step being measured; each bird reads it at its own offset so the flock spreads out
+    private static final boolean[] TAPS = new boolean[1024];
+
+    static {
+        XorShiftRandom random = new XorShiftRandom(42);
+        for (int i = 0; i < TAPS.length; i++) {
+            TAPS[i] = random.nextDouble() < 0.05;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        int maxTicks = 60 * GameSimulation.TICKS_PER_SECOND;
+        MultiBirdWorld world = new MultiBirdWorld(birds, 0);
+        objects = new ObjectWorld(birds);
+        flaps = new boolean[birds];
+
+        for (long seed = 0; seed < 5; seed++) {
+            runArrays(world, seed, flaps, maxTicks);
+            runObjects(objects, seed, flaps, maxTicks);
+            for (int i = 0; i < birds; i++) {
+                Bird bird = objects.birds.get(i);
+                if (world.isAlive(i) != bird.alive || world.getDeathTick(i) != bird.deathTick
+                        || !bird.alive && world.getScore(i) != bird.halfPoints / 2.0) {
+                    throw new IllegalStateException("Layouts disagree on seed " + seed + " bird " + i);
+                }
+            }
+        }
+        objects.reset(0);
+    }
+
+    // One tick of the whole flock as objects, starting a new field once every bird is down
+    @Benchmark
+    public int objectPerBirdTick() {
+        if (objects.aliveCount == 0) objects.reset(objects.seed + 1);
+        fillInputs(flaps, objects.tick);
+        objects.step(flaps);
+        return objects.aliveCount;
+    }
+
+    private static void fillInputs(boolean[] flaps, long tick) {
+        int offset = (int) tick;
+        for (int i = 0; i < flaps.length; i++) {
+            flaps[i] = TAPS[(offset + i * 37) & (TAPS.length - 1)];
+        }
+    }
+
+    private static void runArrays(MultiBirdWorld world, long seed, boolean[] flaps, int maxTicks) {
+        world.reset(seed);
+        while (world.getAliveCount() > 0 && world.getTick() < maxTicks) {
+            fillInputs(flaps, world.getTick());
+            world.step(flaps);
+        }
+    }
+
+    private static void runObjects(ObjectWorld world, long seed, boolean[] flaps, int maxTicks) {
+        world.reset(seed);
+        while (world.aliveCount > 0 && world.tick < maxTicks) {
+            fillInputs(flaps, world.tick);
+            world.step(flaps);
+        }
+    }
+
+    private static final class Bird {
+        int y, prevY, velocityY;
+        boolean held, alive;
+        long deathTick;
+        int halfPoints;
+    }
+
+    private static final class Pipe {
+        int x, prevX, y;
+        boolean top, passed;
+    }
+
+    // The baseline: same rules as MultiBirdWorld, entities as objects
+    private static final class ObjectWorld {
+        final List<Bird> birds = new ArrayList<>();
+        final List<Pipe> pipes = new ArrayList<>();
+        final XorShiftRandom random = new XorShiftRandom(0);
+        long seed;
+        long tick;
+        int halfPoints, pipeDelayMillis, ticksSinceSpawn, aliveCount;
+
+        ObjectWorld(int count) {
+            for (int i = 0; i < count; i++) {
+                birds.add(new Bird());
+            }
+        }
+
+        void reset(long seed) {
+            this.seed = seed;
+            random.setSeed(seed);
+            pipes.clear();
+            for (Bird bird : birds) {
+                bird.y = GameSimulation.BOARD_HEIGHT / 2;
+                bird.prevY = bird.y;
+                bird.velocityY = 0;
+                bird.held = false;
+                bird.alive = true;
+                bird.deathTick = 0;
+                bird.halfPoints = 0;
+            }
+            tick = 0;
+            halfPoints = 0;
+            pipeDelayMillis = Difficulty.DEFAULT.basePipeDelayMillis();
+            ticksSinceSpawn = 0;
+            aliveCount = birds.size();
+        }
+
+        void step(boolean[] flaps) {
+            tick++;
+            if (++ticksSinceSpawn >= (pipeDelayMillis * GameSimulation.TICKS_PER_SECOND + 999) / 1000) {
+                ticksSinceSpawn = 0;
+                int topY = (int) (-GameSimulation.PIPE_HEIGHT / 4 - random.nextDouble() * (GameSimulation.PIPE_HEIGHT / 2));
+                Pipe top = new Pipe();
+                top.x = top.prevX = GameSimulation.BOARD_WIDTH;
+                top.y = topY;
+                top.top = true;
+                Pipe bottom = new Pipe();
+                bottom.x = bottom.prevX = GameSimulation.BOARD_WIDTH;
+                bottom.y = topY + GameSimulation.PIPE_HEIGHT + Difficulty.DEFAULT.opening(halfPoints / 2.0);
+                pipes.add(top);
+                pipes.add(bottom);
+                pipeDelayMillis = Difficulty.DEFAULT.pipeDelayMillis(halfPoints / 2.0);
+            }
+            for (Pipe pipe : pipes) {
+                pipe.prevX = pipe.x;
+                pipe.x += PIPE_VELOCITY_X;
+                if (!pipe.passed && GameSimulation.BIRD_X > pipe.x + GameSimulation.PIPE_WIDTH) {
+                    halfPoints++;
+                    pipe.passed = true;
+                }
+            }
+
+            for (int i = 0; i < birds.size(); i++) {
+                Bird bird = birds.get(i);
+                boolean flap = flaps[i];
+                boolean pressed = flap && !bird.held;
+                bird.held = flap;
+                if (!bird.alive) continue;
+
+                if (pressed) bird.velocityY = FLAP_VELOCITY_Y;
+                bird.velocityY += GRAVITY;
+                bird.prevY = bird.y;
+                bird.y = Math.max(bird.y + bird.velocityY, 0);
+
+                boolean dead = bird.y > GameSimulation.BOARD_HEIGHT;
+                for (Pipe pipe : pipes) {
+                    if (collides(bird, pipe)) {
+                        dead = true;
+                    }
+                }
+                if (dead) {
+                    bird.alive = false;
+                    bird.deathTick = tick;
+                    bird.halfPoints = halfPoints;
+                    aliveCount--;
+                }
+            }
+            pipes.removeIf(pipe -> pipe.x + GameSimulation.PIPE_WIDTH < 0);
+        }
+
+        private static boolean collides(Bird bird, Pipe pipe) {
+            int columnLo = GameSimulation.BIRD_X - GameSimulation.PIPE_WIDTH;
+            int columnHi = GameSimulation.BIRD_X + GameSimulation.BIRD_WIDTH;
+            int spanLo = pipe.y - GameSimulation.BIRD_HEIGHT;
+            int spanHi = pipe.y + GameSimulation.PIPE_HEIGHT;
+            return GameSimulation.sweepOverlaps(
+                    GameSimulation.sweepEntry(pipe.prevX, pipe.x, columnLo, columnHi),
+                    GameSimulation.sweepExit(pipe.prevX, pipe.x, columnLo, columnHi),
+                    GameSimulation.sweepEntry(bird.prevY, bird.y, spanLo, spanHi),
+                    GameSimulation.sweepExit(bird.prevY, bird.y, spanLo, spanHi));
+        }
+    }
+}
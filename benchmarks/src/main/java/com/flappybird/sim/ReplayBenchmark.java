@@ -0,0 +1,67 @@
+package com.flappybird.sim;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Score verification throughput: replays of a bot's run lasting a minute or more, decoded and
+// played again per operation. Reported per second and per thread, the target being thousands.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+    private static final long MIN_TICKS = 60L * GameSimulation.TICKS_PER_SECOND;
+
+    private byte[] replay;
+    private int score;
+    private ReplayVerifier verifier;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The first seed the gap-following bot survives a minute on
+        for (long seed = 1; replay == null; seed++) {
+            GameSimulation simulation = new GameSimulation(seed);
+            simulation.start();
+            Replay.Recorder recorder = Replay.record(seed, true);
+            InputPolicy policy = InputPolicy.gapFollower(40, 6, seed);
+            while (!simulation.isGameOver()) {
+                boolean flap = policy.flap(simulation);
+                simulation.step(flap);
+                recorder.record(flap);
+            }
+            if (simulation.getTick() >= MIN_TICKS) {
+                replay = recorder.finish().toBytes();
+                score = (int) simulation.getScore();
+            }
+        }
+        verifier = new ReplayVerifier(1, 1, Long.MAX_VALUE);
+        if (verifier.verify(replay, score) != ReplayVerifier.Verdict.ACCEPTED) {
+            throw new IllegalStateException("Replay does not reproduce its own run");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        verifier.close();
+    }
+
+    // One replay checked on the calling thread, as each verifier worker does
+    @Benchmark
+    public ReplayVerifier.Verdict verify() {
+        return verifier.verify(replay, score);
+    }
+}
@@ -0,0 +1,117 @@
+package com.flappybird.sim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The game rules: a full tick, pipe spawning, the swept bird-pipe test and a many-bird tick.
+// Lives in the simulation's package so it can reach the package-private pieces.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulationBenchmark {
+    private GameSimulation simulation;
+    private InputPolicy policy;
+    private long seed;
+
+    private GameSimulation spawner;
+
+    // Bird and pipe positions for the swept test, read from fields so nothing constant-folds
+    private int birdFrom, birdTo, pipeFrom, pipeTo, pipeY;
+
+    // A flock tapping at random, each bird reading a shared tap table at its own offset
+    @State(Scope.Thread)
+    public static class Flock {
+        @Param({"1024", "16384"})
+        public int birds;
+
+        MultiBirdWorld world;
+        boolean[] flaps;
+        final boolean[] taps = new boolean[1024];
+
+        @Setup
+        public void setUp() {
+            world = new MultiBirdWorld(birds, 0);
+            flaps = new boolean[birds];
+            XorShiftRandom random = new XorShiftRandom(42);
+            for (int i = 0; i < taps.length; i++) {
+                taps[i] = random.nextDouble() < 0.05;
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        simulation = new GameSimulation(0);
+        restart();
+
+        spawner = new GameSimulation(0);
+
+        birdFrom = 370;
+        birdTo = 374;
+        pipeFrom = 40;
+        pipeTo = 36;
+        pipeY = 380;
+    }
+
+    private void restart() {
+        simulation.reset(++seed);
+        simulation.start();
+        policy = InputPolicy.gapFollower(40, 6, seed);
+    }
+
+    // One tick of a game played by the gap-following bot, restarting whenever it dies
+    @Benchmark
+    public int tick() {
+        if (simulation.isGameOver()) restart();
+        return simulation.step(policy.flap(simulation));
+    }
+
+    // Adding one pipe pair, as a tick does every 48 to 90 ticks
+    @Benchmark
+    public PipeRing spawnPipes() {
+        PipeRing pipes = spawner.getPipes();
+        if (pipes.size() == PipeRing.CAPACITY) {
+            pipes.clear(); // As the oldest pairs leaving the screen would
+        }
+        spawner.spawnPipes();
+        return pipes;
+    }
+
+    // The exact test run for each pipe near the bird once the bounding boxes meet
+    @Benchmark
+    public boolean sweptCollision() {
+        int lo = GameSimulation.BIRD_X - GameSimulation.PIPE_WIDTH;
+        int hi = GameSimulation.BIRD_X + GameSimulation.BIRD_WIDTH;
+        int top = pipeY - GameSimulation.BIRD_HEIGHT;
+        int bottom = pipeY + GameSimulation.PIPE_HEIGHT;
+        return GameSimulation.sweepOverlaps(
+                GameSimulation.sweepEntry(pipeFrom, pipeTo, lo, hi), GameSimulation.sweepExit(pipeFrom, pipeTo, lo, hi),
+                GameSimulation.sweepEntry(birdFrom, birdTo, top, bottom), GameSimulation.sweepExit(birdFrom, birdTo, top, bottom));
+    }
+
+    // One tick of the whole flock, starting a new field once every bird is down
+    @Benchmark
+    public int multiBirdTick(Flock flock) {
+        MultiBirdWorld world = flock.world;
+        if (world.getAliveCount() == 0) world.reset(world.getSeed() + 1);
+        int offset = (int) world.getTick();
+        for (int i = 0; i < flock.flaps.length; i++) {
+            flock.flaps[i] = flock.taps[(offset + i * 37) & (flock.taps.length - 1)];
+        }
+        return world.step(flock.flaps);
+    }
+}
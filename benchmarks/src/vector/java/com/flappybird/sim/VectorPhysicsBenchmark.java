@@ -0,0 +1,157 @@
+package com.flappybird.sim;
+
+import java.util.concurrent.TimeUnit;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// MultiBirdWorld's vertical physics pass, the per-bird loop every tick runs, written with the
+// Vector API next to the same scalar loop the world uses, to see what explicit SIMD would buy over
+// C2's auto-vectorizer. jdk.incubator.vector needs --add-modules at compile and run time, which the
+// game can't ask of every player, so this only builds with the vector profile (mvn -Pvector package)
+// and the game keeps the scalar loop. Both versions must leave identical state before anything is timed.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class VectorPhysicsBenchmark {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int GRAVITY = 1;
+    private static final int FLAP_VELOCITY_Y = -9;
+
+    @Param({"1024", "16384"})
+    public int birds;
+
+    private Flock flock;
+    private long tick;
+
+    // Bird state laid out as in MultiBirdWorld
+    private static final class Flock {
+        final int[] y, prevY, velocityY, held, alive;
+        final boolean[] flaps;
+
+        Flock(int birds, long seed) {
+            y = new int[birds];
+            prevY = new int[birds];
+            velocityY = new int[birds];
+            held = new int[birds];
+            alive = new int[birds];
+            flaps = new boolean[birds];
+            XorShiftRandom random = new XorShiftRandom(seed);
+            for (int i = 0; i < birds; i++) {
+                y[i] = prevY[i] = (int) (random.nextDouble() * GameSimulation.BOARD_HEIGHT);
+                alive[i] = random.nextDouble() < 0.9 ? 1 : 0; // Some of the flock already down
+            }
+        }
+    }
+
+    // Random taps, about one tick in twenty, read at each bird's own offset as in the other flock benchmarks
+    private static final boolean[] TAPS = new boolean[1024];
+
+    static {
+        XorShiftRandom random = new XorShiftRandom(42);
+        for (int i = 0; i < TAPS.length; i++) {
+            TAPS[i] = random.nextDouble() < 0.05;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Flock scalar = new Flock(birds, 7);
+        Flock vector = new Flock(birds, 7);
+        for (int t = 0; t < 2_000; t++) {
+            fillInputs(scalar.flaps, t);
+            fillInputs(vector.flaps, t);
+            scalarPass(scalar);
+            vectorPass(vector);
+        }
+        for (int i = 0; i < birds; i++) {
+            if (scalar.y[i] != vector.y[i] || scalar.prevY[i] != vector.prevY[i]
+                    || scalar.velocityY[i] != vector.velocityY[i] || scalar.held[i] != vector.held[i]) {
+                throw new IllegalStateException("Scalar and vector physics disagree on bird " + i);
+            }
+        }
+        flock = new Flock(birds, 7);
+    }
+
+    @Benchmark
+    public int[] scalar() {
+        fillInputs(flock.flaps, tick++);
+        scalarPass(flock);
+        return flock.y;
+    }
+
+    @Benchmark
+    public int[] vector() {
+        fillInputs(flock.flaps, tick++);
+        vectorPass(flock);
+        return flock.y;
+    }
+
+    private static void fillInputs(boolean[] flaps, long tick) {
+        int offset = (int) tick;
+        for (int i = 0; i < flaps.length; i++) {
+            flaps[i] = TAPS[(offset + i * 37) & (TAPS.length - 1)];
+        }
+    }
+
+    // The loop from MultiBirdWorld.step: flap on a rising edge, then gravity; dead birds keep their state
+    private static void scalarPass(Flock f) {
+        scalarPass(f, 0, f.y.length);
+    }
+
+    private static void scalarPass(Flock f, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int a = f.alive[i];
+            int flap = f.flaps[i] ? 1 : 0;
+            int pressed = flap & (f.held[i] ^ 1) & a;
+            f.held[i] = flap;
+            int v = pressed != 0 ? FLAP_VELOCITY_Y : f.velocityY[i];
+            v += GRAVITY * a;
+            f.velocityY[i] = v;
+            int current = f.y[i];
+            f.prevY[i] = a != 0 ? current : f.prevY[i];
+            f.y[i] = a != 0 ? Math.max(current + v, 0) : current;
+        }
+    }
+
+    // The same pass a vector of birds at a time, with masks in place of the selects
+    private static void vectorPass(Flock f) {
+        int bound = SPECIES.loopBound(f.y.length);
+        IntVector zero = IntVector.zero(SPECIES);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector a = IntVector.fromArray(SPECIES, f.alive, i);
+            VectorMask<Integer> live = a.compare(VectorOperators.NE, 0);
+            VectorMask<Integer> flap = VectorMask.fromArray(SPECIES, f.flaps, i);
+            VectorMask<Integer> released = IntVector.fromArray(SPECIES, f.held, i).compare(VectorOperators.EQ, 0);
+            VectorMask<Integer> pressed = flap.and(released).and(live);
+            zero.blend(1, flap).intoArray(f.held, i);
+
+            IntVector v = IntVector.fromArray(SPECIES, f.velocityY, i)
+                    .blend(FLAP_VELOCITY_Y, pressed)
+                    .add(a.mul(GRAVITY));
+            v.intoArray(f.velocityY, i);
+
+            IntVector current = IntVector.fromArray(SPECIES, f.y, i);
+            current.intoArray(f.prevY, i, live);
+            current.add(v).max(0).intoArray(f.y, i, live);
+        }
+        scalarPass(f, bound, f.y.length);
+    }
+}
@@ -0,0 +1,92 @@
+package com.flappybird;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.flappybird.sim.GameSimulation;
+import com.flappybird.sim.InputPolicy;
+
+// Gameplay frames drawn offscreen through the same drawFrame the panel paints with, counting the
+// bytes the drawing thread allocates. Covers the start screen, play and the game over screen
+class FrameAllocationTest {
+    private static final int WARM_UP_FRAMES = 10_000;
+    private static final int MEASURED_FRAMES = 3_000;
+    // Java2D builds a couple of hundred bytes of font state when a Graphics switches fonts, which
+    // happens once per start and game over screen; any object made every frame costs far more
+    private static final double MAX_BYTES_PER_FRAME = 1.0;
+    private static final int SCREEN_FRAMES = 10; // Frames drawn of each start and game over screen
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final GameSimulation simulation = new GameSimulation(1);
+    private final int birdSprite = SpriteAtlas.bird(0);
+    private InputPolicy policy;
+    private long seed = 1;
+    private int screenFrames; // Start and game over frames drawn in the current game
+    private BufferedImage frame;
+    private Graphics2D g;
+
+    @BeforeEach
+    void setUp() {
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(), "No per-thread allocation counter on this JVM");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        frame = new BufferedImage(FlappyBird.BOARD_WIDTH, FlappyBird.BOARD_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = frame.createGraphics();
+        newGame();
+    }
+
+    @AfterEach
+    void tearDown() {
+        g.dispose();
+    }
+
+    @Test
+    void drawingAFrameAllocatesNothing() {
+        drawFrames(WARM_UP_FRAMES); // Loads the sprites and digit strip, and lets the JIT settle
+        long bytes = drawFrames(MEASURED_FRAMES);
+        double perFrame = (double) bytes / MEASURED_FRAMES;
+        assertTrue(perFrame < MAX_BYTES_PER_FRAME,
+                String.format("%.1f bytes allocated per frame, %d over %d frames", perFrame, bytes, MEASURED_FRAMES));
+    }
+
+    // Draw the given number of frames, advancing the bot a tick between them, and return the
+    // bytes allocated by the drawing alone
+    private long drawFrames(int frames) {
+        long allocated = 0;
+        for (int i = 0; i < frames; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            FlappyBird.drawFrame(g, null, simulation, birdSprite, true, 0.5);
+            allocated += threads.getCurrentThreadAllocatedBytes() - before;
+            advance();
+        }
+        return allocated;
+    }
+
+    // A few frames of the start screen, the run itself, then a few frames of game over
+    private void advance() {
+        if (!simulation.isStarted()) {
+            if (++screenFrames == SCREEN_FRAMES) {
+                simulation.start();
+            }
+        } else if (!simulation.isGameOver()) {
+            simulation.step(policy.flap(simulation));
+        } else if (++screenFrames == 2 * SCREEN_FRAMES) {
+            newGame();
+        }
+    }
+
+    private void newGame() {
+        seed++;
+        simulation.reset(seed);
+        policy = InputPolicy.gapFollower(40, 6, seed);
+        screenFrames = 0;
+    }
+}
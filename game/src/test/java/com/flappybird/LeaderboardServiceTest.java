@@ -0,0 +1,80 @@
+package com.flappybird;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flappybird.database.ConnectionPool;
+import com.flappybird.database.DatabaseConnection;
+import com.flappybird.database.LeaderboardRepository;
+import com.flappybird.database.RankIndex;
+import com.flappybird.database.SchemaMigrator;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Standings and the rank index consistency check, against an in-memory H2 database in MySQL mode
+class LeaderboardServiceTest {
+    private static int databases = 0;
+
+    private String url;
+
+    @BeforeEach
+    void migrate() throws SQLException {
+        url = "jdbc:h2:mem:service" + (++databases) + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        DatabaseConnection.setPool(new ConnectionPool(() -> DriverManager.getConnection(url), 2, 60_000));
+        new SchemaMigrator().migrate();
+        execute("INSERT INTO leaderboard (name, score) VALUES ('ann', 9), ('bob', 7), ('cat', 7), ('dan', 5)");
+    }
+
+    @AfterEach
+    void closePool() {
+        DatabaseConnection.setPool(null);
+    }
+
+    @Test
+    void rowCaughtUpToLastSortsAfterItsTies() throws SQLException {
+        // cat (id 3) was just inserted, the index had counted up to bob
+        LeaderboardRepository store = new LeaderboardRepository();
+        RankIndex index = new RankIndex();
+        index.load(store.scoreHistogram(2), 2);
+
+        assertEquals(new RankIndex.Standing(3, 3, 100.0), LeaderboardService.standingOf(store, index, 3, "cat", 7));
+    }
+
+    @Test
+    void indexLoadedAfterTheInsertStillRanksTheRowByItsId() throws SQLException {
+        // bob (id 2) was just inserted, then cat tied him before the index first loaded
+        RankIndex index = new RankIndex();
+        RankIndex.Standing standing = LeaderboardService.standingOf(new LeaderboardRepository(), index, 2, "bob", 7);
+
+        assertEquals(new RankIndex.Standing(2, 4, 50.0), standing);
+    }
+
+    @Test
+    void driftedRankIndexIsDetectedAndRebuilt() throws Exception {
+        LeaderboardService service = new LeaderboardService(new LeaderboardTableModel());
+        service.verifyRankIndex().get(); // In step with this database, whatever an earlier one left behind
+        assertTrue(service.verifyRankIndex().get());
+
+        // Edits and deletes never reach the index through its id high-water mark
+        execute("UPDATE leaderboard SET score = 1 WHERE name = 'cat'");
+        assertFalse(service.verifyRankIndex().get());
+        assertTrue(service.verifyRankIndex().get());
+
+        execute("DELETE FROM leaderboard WHERE name = 'ann'");
+        assertFalse(service.verifyRankIndex().get());
+        assertTrue(service.verifyRankIndex().get());
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
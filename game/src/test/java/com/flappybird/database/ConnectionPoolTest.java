@@ -0,0 +1,120 @@
+package com.flappybird.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Statements handed out by borrowed connections, against an in-memory H2 database
+class ConnectionPoolTest {
+    private static final String SELECT = "SELECT n FROM numbers WHERE n >= ? ORDER BY n";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:pool" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url), 1, 60_000);
+        try (Connection conn = pool.borrow(1_000); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE numbers (n INT)");
+            stmt.execute("INSERT INTO numbers VALUES (1), (2), (3)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void sameSqlTwiceKeepsTheFirstStatementIntact() throws SQLException {
+        try (Connection conn = pool.borrow(1_000)) {
+            PreparedStatement first = conn.prepareStatement(SELECT);
+            first.setInt(1, 2);
+            ResultSet firstRows = first.executeQuery();
+            assertTrue(firstRows.next());
+
+            try (PreparedStatement second = conn.prepareStatement(SELECT)) {
+                second.setInt(1, 3);
+                try (ResultSet rows = second.executeQuery()) {
+                    assertTrue(rows.next());
+                    assertEquals(3, rows.getInt(1));
+                }
+            }
+
+            // The first statement's cursor and bindings were left alone
+            assertEquals(2, firstRows.getInt(1));
+            assertTrue(firstRows.next());
+            assertEquals(3, firstRows.getInt(1));
+            try (ResultSet rows = first.executeQuery()) {
+                assertTrue(rows.next());
+                assertEquals(2, rows.getInt(1));
+            }
+            first.close();
+        }
+    }
+
+    @Test
+    void closedStatementIsReusedFromTheCache() throws SQLException {
+        try (Connection conn = pool.borrow(1_000)) {
+            conn.prepareStatement(SELECT).close();
+            conn.prepareStatement(SELECT).close();
+        }
+        assertEquals(1, pool.getStatementCacheHits());
+        assertEquals(1, pool.getStatementCacheMisses());
+    }
+
+    @Test
+    void statementsHandBackThePooledConnection() throws SQLException {
+        try (Connection conn = pool.borrow(1_000)) {
+            try (PreparedStatement cached = conn.prepareStatement(SELECT);
+                 PreparedStatement keys = conn.prepareStatement("INSERT INTO numbers VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+                 Statement plain = conn.createStatement()) {
+                assertSame(conn, cached.getConnection());
+                assertSame(conn, keys.getConnection());
+                assertSame(conn, plain.getConnection());
+
+                // Closing it through a statement returns it, the physical connection stays open
+                cached.getConnection().close();
+            }
+            assertTrue(conn.isClosed());
+        }
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+
+        try (Connection again = pool.borrow(1_000); Statement stmt = again.createStatement();
+             ResultSet rows = stmt.executeQuery("SELECT COUNT(*) FROM numbers")) {
+            assertFalse(again.isClosed());
+            assertTrue(rows.next());
+            assertEquals(3, rows.getInt(1));
+        }
+    }
+
+    @Test
+    void statementsLeftOpenAreTakenBackWithTheConnection() throws SQLException {
+        PreparedStatement cached;
+        Statement plain;
+        try (Connection conn = pool.borrow(1_000)) {
+            cached = conn.prepareStatement(SELECT);
+            plain = conn.createStatement();
+        }
+        assertTrue(plain.isClosed());
+
+        try (Connection conn = pool.borrow(1_000); PreparedStatement stmt = conn.prepareStatement(SELECT)) {
+            assertNotSame(cached, stmt);
+            assertEquals(1, pool.getStatementCacheHits()); // The one left open was given back to the cache
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.flappybird.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// The kiosk's local store: its log and snapshot on disk, and syncing with an in-memory H2 database in MySQL mode
+class LocalLeaderboardStoreTest {
+    private static final int LOG_HEADER_BYTES = 16;
+    private static final int ONE_LETTER_ENTRY_BYTES = 21; // Type, ids, score, flag, name length, name, CRC
+
+    private static int databases = 0;
+
+    @TempDir
+    Path directory;
+
+    private String url;
+    private volatile boolean online;
+
+    @BeforeEach
+    void migrate() throws SQLException {
+        url = "jdbc:h2:mem:store" + (++databases) + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        setOnline(true);
+        new SchemaMigrator().migrate();
+    }
+
+    @AfterEach
+    void closePool() {
+        DatabaseConnection.setPool(null);
+    }
+
+    @Test
+    void replayStopsAtACorruptTailRecordAndAppendsAfterIt() throws Exception {
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, null)) {
+            store.insertScore("a", 3);
+            store.insertScore("b", 5);
+            store.insertScore("c", 4);
+        }
+        // Flip the last record's name, as a write cut short by a crash can leave it
+        overwriteLog(LOG_HEADER_BYTES + 2 * ONE_LETTER_ENTRY_BYTES + 16, (byte) 'x');
+
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, null)) {
+            assertEquals(List.of("b", "a"), names(store));
+            store.insertScore("d", 9);
+        }
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, null)) {
+            assertEquals(List.of("d", "b", "a"), names(store));
+        }
+    }
+
+    @Test
+    void replayStopsAtATornTailRecord() throws Exception {
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, null)) {
+            store.insertScore("a", 3);
+            store.insertScore("b", 5);
+        }
+        // Only the start of the last record made it to disk
+        int torn = LOG_HEADER_BYTES + ONE_LETTER_ENTRY_BYTES + 9;
+        for (int i = torn; i < LOG_HEADER_BYTES + 2 * ONE_LETTER_ENTRY_BYTES; i++) {
+            overwriteLog(i, (byte) 0);
+        }
+
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, null)) {
+            assertEquals(List.of("a"), names(store));
+            assertEquals(2, store.insertScore("c", 1));
+        }
+    }
+
+    @Test
+    void compactedSnapshotOpensToTheSameTable() throws Exception {
+        String padding = "x".repeat(1000);
+        List<LeaderboardEntry> before;
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, null)) {
+            // A little over COMPACT_BYTES of log, so it compacts once and keeps a tail after the snapshot
+            for (int i = 0; i < 5000; i++) {
+                store.insertScore(i + padding, (i * 7919) % 100);
+            }
+            before = store.loadPageAt(0, Integer.MAX_VALUE);
+        }
+        assertTrue(Files.exists(directory.resolve("leaderboard.snapshot")));
+
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, null)) {
+            assertEquals(before, store.loadPageAt(0, Integer.MAX_VALUE));
+            assertEquals(new LeaderboardStore.TableState(5000, 5000), store.readState());
+            assertEquals(5001, store.insertScore("next", 50));
+        }
+    }
+
+    @Test
+    void scoresSavedOfflineAreUploadedInBatchesOnceMySqlIsBack() throws Exception {
+        setOnline(false);
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, new LeaderboardRepository())) {
+            for (int i = 0; i < 450; i++) {
+                store.insertScore("p" + i, i);
+            }
+            store.syncNow();
+            assertEquals(450, store.getPendingCount());
+            assertEquals(450, store.readState().rowCount());
+
+            setOnline(true);
+            store.syncNow();
+            assertEquals(0, store.getPendingCount());
+            assertEquals(450, store.readState().rowCount()); // Nothing of ours was mirrored back as a copy
+        }
+        assertEquals(450, count("SELECT COUNT(*) FROM leaderboard"));
+        assertEquals(449, count("SELECT MAX(score) FROM leaderboard"));
+    }
+
+    @Test
+    void rowsCommittedBelowVisibleIdsAreStillMirrored() throws Exception {
+        execute("INSERT INTO leaderboard (id, name, score) VALUES (1, 'first', 10)");
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, new LeaderboardRepository())) {
+            store.syncNow();
+            assertEquals(List.of("first"), names(store));
+
+            // Another kiosk's batch holds id 2 in an open transaction while id 3 commits
+            execute("INSERT INTO leaderboard (id, name, score) VALUES (3, 'early', 10)");
+            store.syncNow();
+            assertEquals(List.of("first", "early"), names(store));
+
+            execute("INSERT INTO leaderboard (id, name, score) VALUES (2, 'late', 10)");
+            store.syncNow();
+            // Ties in MySQL id order, as the server ranks them
+            assertEquals(List.of("first", "late", "early"), names(store));
+        }
+
+        // The mark moved past all three, so reopening mirrors nothing twice
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, new LeaderboardRepository())) {
+            store.syncNow();
+            assertEquals(List.of("first", "late", "early"), names(store));
+        }
+    }
+
+    @Test
+    void uploadedRowsMoveAmongTiesByMySqlId() throws Exception {
+        setOnline(false);
+        try (LocalLeaderboardStore store = LocalLeaderboardStore.open(directory, new LeaderboardRepository())) {
+            store.insertScore("ours", 10);
+            execute("INSERT INTO leaderboard (name, score) VALUES ('theirs', 10)");
+            assertEquals(List.of("ours"), names(store));
+
+            // Ours reaches MySQL after theirs, so it ranks after theirs there and here
+            setOnline(true);
+            store.syncNow();
+            assertEquals(List.of("theirs", "ours"), names(store));
+        }
+    }
+
+    // Swap in a fresh pool, so no connection opened while online is still idle in it
+    private void setOnline(boolean online) {
+        this.online = online;
+        DatabaseConnection.setPool(new ConnectionPool(() -> {
+            if (!this.online) throw new SQLException("MySQL is unreachable");
+            return DriverManager.getConnection(url);
+        }, 2, 60_000));
+    }
+
+    private static List<String> names(LocalLeaderboardStore store) {
+        List<String> names = new ArrayList<>();
+        for (LeaderboardEntry entry : store.loadPageAt(0, Integer.MAX_VALUE)) {
+            names.add(entry.name());
+        }
+        return names;
+    }
+
+    private void overwriteLog(int position, byte value) throws Exception {
+        try (FileChannel channel = FileChannel.open(directory.resolve("leaderboard.log"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {value}), position);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.flappybird.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// The ranked queries' plans on a freshly migrated schema, in an in-memory H2 database in MySQL mode
+class QueryPlanCheckTest {
+    private static int databases = 0;
+
+    private String url;
+
+    @BeforeEach
+    void migrate() throws SQLException {
+        url = "jdbc:h2:mem:plans" + (++databases) + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        DatabaseConnection.setPool(new ConnectionPool(() -> DriverManager.getConnection(url), 2, 60_000));
+        new SchemaMigrator().migrate();
+    }
+
+    @AfterEach
+    void closePool() {
+        DatabaseConnection.setPool(null);
+    }
+
+    @Test
+    void migratedSchemaServesEveryQueryFromAnIndex() throws SQLException {
+        QueryPlanCheck check = new QueryPlanCheck();
+        assertEquals(4, check.explainAll().size());
+        assertEquals(List.of(), check.findProblems());
+    }
+
+    // MariaDB before 10.8 ignores DESC in an index, so an ORDER BY mixing directions sorts there whatever H2's plan says
+    @Test
+    void rankedQueriesOrderInOneDirection() {
+        for (String sql : List.of(LeaderboardRepository.SELECT_PAGE_AFTER, LeaderboardRepository.SELECT_PAGE_AT,
+                LeaderboardRepository.SELECT_BY_NAME, LeaderboardRepository.COUNT_RANKED_BEFORE)) {
+            assertFalse(sql.contains("DESC"), sql);
+        }
+    }
+
+    @Test
+    void missingRankIndexIsReported() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP INDEX idx_leaderboard_rank");
+        }
+
+        List<String> problems = new QueryPlanCheck().findProblems();
+        assertTrue(problems.stream().anyMatch(p -> p.startsWith("page after: full table scan")), problems.toString());
+        assertTrue(problems.stream().anyMatch(p -> p.startsWith("page after: filesort")), problems.toString());
+    }
+}
@@ -0,0 +1,128 @@
+package com.flappybird.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+// The swept bird-pipe test and pipe scoring, on simulations steered tick by tick
+class GameSimulationTest {
+    private static final int FALL_TICKS = 19; // Ticks of free fall from the middle of the board before the test tick
+
+    // A bird that has fallen for FALL_TICKS ticks, at y 510 and about to move 20 pixels down in one tick
+    private static GameSimulation fallingBird() {
+        GameSimulation simulation = new GameSimulation(1);
+        simulation.start();
+        for (int i = 0; i < FALL_TICKS; i++) {
+            simulation.step(false);
+        }
+        assertEquals(510, simulation.getBirdY());
+        return simulation;
+    }
+
+    @Test
+    void birdClippingAPipeCornerMidTickIsHit() {
+        // The pipe leaves the bird's column a quarter into the tick, and the bird drops into its span a tenth in.
+        // Neither end of the tick overlaps, only the sweep sees the corner
+        GameSimulation simulation = fallingBird();
+        simulation.getPipes().add(-18, 536, false);
+        simulation.step(false);
+
+        assertTrue(simulation.isGameOver());
+        assertEquals(GameSimulation.DeathCause.BOTTOM_PIPE, simulation.getDeathCause());
+    }
+
+    @Test
+    void birdPassingJustOutsideAPipeCornerIsNotHit() {
+        // Same tick, but the bird only reaches the pipe's span after the pipe has left the column
+        GameSimulation simulation = fallingBird();
+        simulation.getPipes().add(-18, 540, false);
+        simulation.step(false);
+
+        assertFalse(simulation.isGameOver());
+        assertEquals(530, simulation.getBirdY());
+    }
+
+    @Test
+    void sweepCatchesAnObstaclePassedThroughWithinOneTick() {
+        // A thin obstacle the bird is above at the start of the tick and below at the end
+        int lo = 300 - GameSimulation.BIRD_HEIGHT, hi = 310;
+        double yEntry = GameSimulation.sweepEntry(250, 330, lo, hi);
+        double yExit = GameSimulation.sweepExit(250, 330, lo, hi);
+        double xEntry = GameSimulation.sweepEntry(40, 36, 0, 80);
+        double xExit = GameSimulation.sweepExit(40, 36, 0, 80);
+
+        assertTrue(GameSimulation.sweepOverlaps(xEntry, xExit, yEntry, yExit));
+        assertFalse(250 > lo && 250 < hi || 330 > lo && 330 < hi); // Testing either end of the tick alone misses it
+    }
+
+    @Test
+    void sweepWindowsThatOnlyTouchDoNotOverlap() {
+        assertFalse(GameSimulation.sweepOverlaps(0, 0.5, 0.5, 1));
+        assertFalse(GameSimulation.sweepOverlaps(1, 2, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+        assertTrue(GameSimulation.sweepOverlaps(0.2, 0.6, 0.5, 0.9));
+    }
+
+    @Test
+    void scoreCountsEveryPairPassedAfterTheRingHasWrapped() {
+        // A bot run long enough that pipes have been reclaimed from the head of the ring many times over
+        for (long seed = 1; seed <= 100; seed++) {
+            GameSimulation simulation = new GameSimulation(seed);
+            simulation.start();
+            InputPolicy policy = InputPolicy.gapFollower(40, 6, seed);
+            List<Long> spawnTicks = new ArrayList<>();
+            while (!simulation.isGameOver()) {
+                simulation.step(policy.flap(simulation));
+                PipeRing pipes = simulation.getPipes();
+                if (pipes.size() > 0 && pipes.x[pipes.slot(pipes.size() - 1)] == GameSimulation.BOARD_WIDTH - 4) {
+                    spawnTicks.add(simulation.getTick());
+                }
+            }
+            if (spawnTicks.size() < 4 * PipeRing.CAPACITY) continue;
+
+            // Every pair moved 4 pixels a tick from its spawn to the tick the bird died, and scores once wholly behind it
+            int passedPairs = 0;
+            for (long spawned : spawnTicks) {
+                long x = GameSimulation.BOARD_WIDTH - 4 * (simulation.getTick() - spawned + 1);
+                if (GameSimulation.BIRD_X > x + GameSimulation.PIPE_WIDTH) passedPairs++;
+            }
+            assertEquals(passedPairs, simulation.getScore(), "seed " + seed);
+            return;
+        }
+        throw new AssertionError("No seed in 1..100 ran long enough to wrap the ring");
+    }
+
+    @Test
+    void pipesSpawningAsFastAsAllowedFillTheRingExactly() {
+        // Openings wide enough for the bot to live through pipes packed this tightly
+        Difficulty fastest = Difficulty.DEFAULT
+                .withPipeDelay(GameSimulation.MIN_PIPE_DELAY_MILLIS, GameSimulation.MIN_PIPE_DELAY_MILLIS, 0)
+                .withOpening(400, 400, 0, 1);
+        for (long seed = 1; seed <= 100; seed++) {
+            GameSimulation simulation = new GameSimulation(seed, fastest);
+            simulation.start();
+            InputPolicy policy = InputPolicy.gapFollower(40, 6, seed);
+            int most = 0;
+            while (!simulation.isGameOver()) {
+                simulation.step(policy.flap(simulation));
+                most = Math.max(most, simulation.getPipes().size());
+            }
+            if (simulation.getTick() < 2 * GameSimulation.PIPE_LIFETIME_TICKS) continue; // Not long enough to fill up
+
+            assertEquals(PipeRing.CAPACITY, most, "seed " + seed);
+            return;
+        }
+        throw new AssertionError("No seed in 1..100 outlived two pipe lifetimes");
+    }
+
+    @Test
+    void difficultySpawningFasterThanTheRingHoldsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Difficulty.DEFAULT.withPipeDelay(
+                GameSimulation.MIN_PIPE_DELAY_MILLIS, GameSimulation.MIN_PIPE_DELAY_MILLIS - 1, 10));
+    }
+}
@@ -0,0 +1,98 @@
+package com.flappybird.sim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+// Recording a run, its encoding, and parsing untrusted bytes
+class ReplayTest {
+
+    // A bot's whole run, recorded as the game records one
+    static Replay recordRun(long seed) {
+        GameSimulation simulation = new GameSimulation(seed);
+        simulation.start();
+        Replay.Recorder recorder = Replay.record(seed, true);
+        InputPolicy policy = InputPolicy.gapFollower(40, 6, seed);
+        while (!simulation.isGameOver()) {
+            boolean flap = policy.flap(simulation);
+            simulation.step(flap);
+            recorder.record(flap);
+        }
+        return recorder.finish();
+    }
+
+    @Test
+    void encodedRunPlaysBackToTheSameEnd() throws IOException {
+        Replay replay = recordRun(42);
+        byte[] bytes = replay.toBytes();
+        Replay decoded = Replay.fromBytes(bytes);
+
+        assertEquals(42, decoded.getSeed());
+        assertTrue(decoded.isStarted());
+        assertEquals(replay.getTicks(), decoded.getTicks());
+        assertArrayEquals(bytes, decoded.toBytes());
+
+        GameSimulation original = replay.play();
+        GameSimulation played = decoded.play();
+        assertTrue(played.isGameOver());
+        assertEquals(original.getTick(), played.getTick());
+        assertEquals(original.getScore(), played.getScore());
+        assertEquals(original.getDeathCause(), played.getDeathCause());
+    }
+
+    @Test
+    void cursorFeedsEveryRecordedTick() {
+        Replay replay = recordRun(7);
+        Replay.Cursor cursor = replay.cursor();
+        GameSimulation simulation = new GameSimulation(replay.getSeed());
+        simulation.start();
+        long ticks = 0;
+        while (cursor.hasNext()) {
+            simulation.step(cursor.next());
+            ticks++;
+        }
+        assertEquals(replay.getTicks(), ticks);
+        assertEquals(replay.play().getScore(), simulation.getScore());
+    }
+
+    @Test
+    void everyTruncationIsRejected() {
+        byte[] bytes = recordRun(42).toBytes();
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> Replay.fromBytes(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    void corruptInputIsRejected() {
+        byte[] bytes = recordRun(42).toBytes();
+
+        byte[] version = bytes.clone();
+        version[3] = 2;
+        assertThrows(IOException.class, () -> Replay.fromBytes(version));
+
+        byte[] flags = bytes.clone();
+        flags[4] = 2; // Only bit 0 is defined
+        assertThrows(IOException.class, () -> Replay.fromBytes(flags));
+
+        byte[] trailing = Arrays.copyOf(bytes, bytes.length + 1);
+        assertThrows(IOException.class, () -> Replay.fromBytes(trailing));
+
+        // "FBR" 1, started, seed 1, 10 ticks, then a run longer than the ticks left
+        assertThrows(IOException.class, () -> Replay.fromBytes(new byte[] {'F', 'B', 'R', 1, 1, 1, 10, 4, 7}));
+        // A zero-length run anywhere but first
+        assertThrows(IOException.class, () -> Replay.fromBytes(new byte[] {'F', 'B', 'R', 1, 1, 1, 10, 4, 0, 6}));
+        // A varint that never ends
+        byte[] endless = new byte[20];
+        System.arraycopy(new byte[] {'F', 'B', 'R', 1, 1}, 0, endless, 0, 5);
+        Arrays.fill(endless, 5, endless.length, (byte) 0x80);
+        assertThrows(IOException.class, () -> Replay.fromBytes(endless));
+    }
+}
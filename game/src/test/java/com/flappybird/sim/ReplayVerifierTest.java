@@ -0,0 +1,87 @@
+package com.flappybird.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+// Verdicts for honest, tampered, oversized and excess submissions, and for seeds the verifier did not issue
+class ReplayVerifierTest {
+
+    @Test
+    void honestRunIsAccepted() throws Exception {
+        Replay replay = ReplayTest.recordRun(42);
+        int score = (int) replay.play().getScore();
+        try (ReplayVerifier verifier = new ReplayVerifier(1, 4, Long.MAX_VALUE)) {
+            assertEquals(ReplayVerifier.Verdict.ACCEPTED, verifier.submit(replay, score).get());
+            assertEquals(ReplayVerifier.Verdict.ACCEPTED, verifier.submit(replay.toBytes(), score).get());
+            assertEquals(2, verifier.getCount(ReplayVerifier.Verdict.ACCEPTED));
+        }
+    }
+
+    @Test
+    void tamperedScoreIsRejected() throws Exception {
+        Replay replay = ReplayTest.recordRun(42);
+        int score = (int) replay.play().getScore();
+        try (ReplayVerifier verifier = new ReplayVerifier(1, 4, Long.MAX_VALUE)) {
+            assertEquals(ReplayVerifier.Verdict.SCORE_MISMATCH, verifier.submit(replay, score + 1).get());
+            assertEquals(ReplayVerifier.Verdict.MALFORMED, verifier.submit(new byte[] {'F', 'B'}, score).get());
+        }
+    }
+
+    @Test
+    void issuedSeedIsRedeemedOnce() throws Exception {
+        try (ReplayVerifier verifier = new ReplayVerifier(1, 4, Long.MAX_VALUE)) {
+            Replay replay = ReplayTest.recordRun(verifier.issueSeed());
+            int score = (int) replay.play().getScore();
+            assertEquals(ReplayVerifier.Verdict.ACCEPTED, verifier.submitIssued(replay, score).get());
+            assertEquals(ReplayVerifier.Verdict.UNKNOWN_SEED, verifier.submitIssued(replay, score).get());
+        }
+    }
+
+    @Test
+    void seedChosenByTheClientIsRefused() throws Exception {
+        Replay replay = ReplayTest.recordRun(42);
+        int score = (int) replay.play().getScore();
+        try (ReplayVerifier verifier = new ReplayVerifier(1, 4, Long.MAX_VALUE)) {
+            verifier.issueSeed();
+            assertEquals(ReplayVerifier.Verdict.UNKNOWN_SEED, verifier.submitIssued(replay, score).get());
+        }
+    }
+
+    @Test
+    void runStillAliveWhenInputEndsIsUnfinished() throws Exception {
+        Replay.Recorder recorder = Replay.record(42, true);
+        recorder.record(false);
+        try (ReplayVerifier verifier = new ReplayVerifier(1, 4, Long.MAX_VALUE)) {
+            assertEquals(ReplayVerifier.Verdict.UNFINISHED, verifier.verify(recorder.finish(), 0));
+        }
+    }
+
+    @Test
+    void runsOverTheTickCapAreNotSimulated() {
+        Replay replay = ReplayTest.recordRun(42);
+        int score = (int) replay.play().getScore();
+        try (ReplayVerifier verifier = new ReplayVerifier(1, 4, replay.getTicks() - 1)) {
+            assertEquals(ReplayVerifier.Verdict.TOO_LONG, verifier.verify(replay, score));
+        }
+        try (ReplayVerifier verifier = new ReplayVerifier(1, 4, replay.getTicks())) {
+            assertEquals(ReplayVerifier.Verdict.ACCEPTED, verifier.verify(replay, score));
+        }
+    }
+
+    @Test
+    void submissionsBeyondTheQueueAreBusy() throws Exception {
+        // Half a billion idle ticks keep the only worker busy far longer than the next two submissions take
+        byte[] slow = {'F', 'B', 'R', 1, 1, 0, (byte) 0x80, (byte) 0xCA, (byte) 0xB5, (byte) 0xEE, 0x01,
+                (byte) 0x80, (byte) 0xCA, (byte) 0xB5, (byte) 0xEE, 0x01};
+        try (ReplayVerifier verifier = new ReplayVerifier(1, 1, Long.MAX_VALUE)) {
+            CompletableFuture<ReplayVerifier.Verdict> running = verifier.submit(slow, 0);
+            CompletableFuture<ReplayVerifier.Verdict> queued = verifier.submit(slow, 0);
+            assertEquals(ReplayVerifier.Verdict.BUSY, verifier.submit(slow, 0).get());
+            queued.cancel(false);
+            running.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.flappybird;
+
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.function.Consumer;
+
+// Canvas the game loop draws into directly, bypassing the RepaintManager.
+// Two buffers are requested with page flipping, which presents on the vertical retrace where the
+// pipeline supports it, and fall back to a blit strategy elsewhere. Frames are drawn on the loop
+// thread; Swing never paints this component.
+final class ActiveRenderer extends Canvas {
+    private static final int BUFFERS = 2;
+
+    private volatile BufferStrategy strategy;
+
+    ActiveRenderer() {
+        setIgnoreRepaint(true);
+        setFocusable(false); // Keys keep going to the game panel underneath
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        try {
+            createBufferStrategy(BUFFERS, new BufferCapabilities(new ImageCapabilities(true), new ImageCapabilities(true),
+                    BufferCapabilities.FlipContents.UNDEFINED));
+        } catch (AWTException e) {
+            createBufferStrategy(BUFFERS); // No page flipping here, take the best blit strategy
+        }
+        strategy = getBufferStrategy();
+    }
+
+    // How frames are presented, for the frame stats: "page flipping", "blitting", or null before addNotify
+    String getPresentMode() {
+        BufferStrategy current = strategy;
+        if (current == null) return null;
+        return current.getCapabilities().isPageFlipping() ? "page flipping" : "blitting";
+    }
+
+    @Override
+    public void removeNotify() {
+        BufferStrategy current = strategy;
+        strategy = null;
+        if (current != null) {
+            current.dispose();
+        }
+        super.removeNotify();
+    }
+
+    // Draw and present one frame, false if the canvas isn't on screen to take it
+    boolean render(Consumer<Graphics> painter) {
+        BufferStrategy current = strategy;
+        if (current == null || !isShowing()) return false;
+
+        try {
+            // Redraw whenever the back buffer was lost or restored while we were using it
+            do {
+                do {
+                    Graphics g = current.getDrawGraphics();
+                    try {
+                        painter.accept(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (current.contentsRestored());
+                current.show();
+            } while (current.contentsLost());
+        } catch (IllegalStateException e) {
+            return false; // Strategy disposed while the canvas was being removed
+        }
+        Toolkit.getDefaultToolkit().sync();
+        return true;
+    }
+}
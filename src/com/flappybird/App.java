@@ -6,6 +6,15 @@ import java.io.IOException;
 
 public class App {
     public static void main(String[] args) {
+        // Decode all sound effects up front so the first click plays without delay
+        SoundEngine.getInstance().start();
+
+        // Decode and convert the images while the menu is up, so the first game starts without a hitch
+        AssetCache.getInstance().preloadInBackground();
+
+        // Migrate the schema and build the rank index while the player is still in the menus
+        LeaderboardService.initializeInBackground();
+
         // Game window dimensions
         final int boardWidth = 800; // Replace with FlappyBird.BOARD_WIDTH if defined
         final int boardHeight = 600; // Replace with FlappyBird.BOARD_HEIGHT if defined
@@ -33,8 +42,8 @@ public class App {
 
     private static void setCustomCursor(JFrame frame) {
         try {
-            // Use ClassLoader to load the image from the classpath
-            Image cursorImage = new ImageIcon(App.class.getResource("/resources/cursor.png")).getImage();
+            // Load the image through the shared asset cache
+            Image cursorImage = AssetCache.getInstance().get("/resources/cursor.png");
     
             // Check if image was loaded
             if (cursorImage == null) {
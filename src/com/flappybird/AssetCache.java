@@ -0,0 +1,166 @@
+package com.flappybird;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+
+// Shared image cache.
+// Every resource is decoded once and copied into an image compatible with the screen, so
+// drawing it is a straight blit instead of a per-frame pixel format conversion. Panels ask
+// for images by path and all get the same instance.
+public final class AssetCache {
+    // Images decoded in the background while the menu is showing
+    private static final String[] PRELOADED = {
+        "/resources/flappybirdbg.png",
+        "/resources/leaderboardbg.png",
+        "/resources/cursor.png",
+        "/resources/flappyImg/flappybird.png",
+        "/resources/flappyImg/flappybird1.png",
+        "/resources/flappyImg/flappybird2.png",
+        "/resources/flappyImg/flappybird3.png",
+        "/resources/flappyImg/flappybird4.png"
+    };
+
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB); // Marks images that failed to decode
+
+    private static final AssetCache INSTANCE = new AssetCache();
+
+    private final Map<String, BufferedImage> images = new ConcurrentHashMap<>();
+
+    private AssetCache() {
+    }
+
+    public static AssetCache getInstance() {
+        return INSTANCE;
+    }
+
+    // Decode the common images on a background thread, call once at startup
+    public void preloadInBackground() {
+        Thread preloader = new Thread(() -> {
+            for (String path : PRELOADED) {
+                get(path);
+            }
+            getScaled("/resources/pipes/toppipe.png", FlappyBird.PIPE_WIDTH, FlappyBird.PIPE_HEIGHT);
+            getScaled("/resources/pipes/bottompipe.png", FlappyBird.PIPE_WIDTH, FlappyBird.PIPE_HEIGHT);
+            if (Boolean.getBoolean("flappybird.assetReport")) {
+                System.out.print(memoryReport());
+            }
+        }, "flappybird-asset-preload");
+        preloader.setDaemon(true);
+        preloader.start();
+    }
+
+    // The cached image for a resource, decoding it on first use, or null if it can't be loaded
+    public BufferedImage get(String path) {
+        BufferedImage image = images.computeIfAbsent(path, AssetCache::decode);
+        return image == MISSING ? null : image;
+    }
+
+    // The image pre-scaled to the size it is drawn at, so per-frame blits don't resample it.
+    // The pipe art is several times larger than the board draws it
+    public BufferedImage getScaled(String path, int width, int height) {
+        BufferedImage image = images.computeIfAbsent(path + "@" + width + "x" + height, key -> {
+            // Full-size art nobody draws unscaled is decoded for this and not kept
+            BufferedImage source = images.containsKey(path) ? images.get(path) : decode(path);
+            return source == MISSING ? MISSING : scale(source, width, height);
+        });
+        return image == MISSING ? null : image;
+    }
+
+    // Approximate bytes held by one cached image, 0 if it isn't loaded
+    public long getMemoryBytes(String path) {
+        BufferedImage image = images.get(path);
+        return image == null || image == MISSING ? 0 : bytesOf(image);
+    }
+
+    public long getTotalMemoryBytes() {
+        long total = 0;
+        for (String path : images.keySet()) {
+            total += getMemoryBytes(path);
+        }
+        return total;
+    }
+
+    // One line per cached image with its size and footprint, then the total
+    public String memoryReport() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, BufferedImage> entry : new TreeMap<>(images).entrySet()) {
+            BufferedImage image = entry.getValue();
+            if (image == MISSING) {
+                report.append(String.format("%-40s missing%n", entry.getKey()));
+            } else {
+                report.append(String.format("%-40s %4dx%-4d %8.1f KB%n", entry.getKey(), image.getWidth(), image.getHeight(),
+                        bytesOf(image) / 1024.0));
+            }
+        }
+        report.append(String.format("%-40s %18.1f KB%n", "total", getTotalMemoryBytes() / 1024.0));
+        return report.toString();
+    }
+
+    private static long bytesOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * Math.max(image.getColorModel().getPixelSize() / 8, 1);
+    }
+
+    private static BufferedImage decode(String path) {
+        try (InputStream resource = AssetCache.class.getResourceAsStream(path)) {
+            if (resource == null) {
+                System.err.println("Error loading image: " + path + " not found");
+                return MISSING;
+            }
+            BufferedImage decoded = ImageIO.read(resource);
+            if (decoded == null) {
+                System.err.println("Error loading image: " + path + " is not a supported format");
+                return MISSING;
+            }
+            return toCompatible(decoded);
+        } catch (Exception e) {
+            System.err.println("Error loading image " + path + ": " + e.getMessage());
+            return MISSING;
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        if (source.getWidth() == width && source.getHeight() == height) return source;
+
+        BufferedImage scaled = blankLike(source, width, height);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    // Copy into the screen's native pixel layout, keeping the source's transparency
+    private static BufferedImage toCompatible(BufferedImage source) {
+        if (GraphicsEnvironment.isHeadless()) return source;
+
+        GraphicsConfiguration config = screenConfiguration();
+        if (source.getColorModel().equals(config.getColorModel(source.getTransparency()))) {
+            return source; // Already compatible
+        }
+        BufferedImage compatible = blankLike(source, source.getWidth(), source.getHeight());
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    // An empty image with the source's transparency, in the screen's layout when there is a screen
+    private static BufferedImage blankLike(BufferedImage source, int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        return screenConfiguration().createCompatibleImage(width, height, source.getTransparency());
+    }
+
+    private static GraphicsConfiguration screenConfiguration() {
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+}
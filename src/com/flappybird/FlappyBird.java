@@ -2,91 +2,88 @@ package com.flappybird;
 
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import javax.swing.*;
-import javax.sound.sampled.*;
 
-public class FlappyBird extends JPanel implements ActionListener, KeyListener {
+import com.flappybird.metrics.GameMetrics;
+import com.flappybird.sim.GameSimulation;
+import com.flappybird.sim.PipeRing;
+import com.flappybird.sim.Replay;
+
+// Swing front end for a GameSimulation: feeds it the space bar, plays its events as sounds and
+// draws its state. The rules themselves live in com.flappybird.sim.
+// The input of every tick is recorded, so a finished run can be replayed exactly (see Replay).
+public class FlappyBird extends JPanel implements GameLoop.Game, KeyListener {
     // Game board dimensions
-    public static final int BOARD_WIDTH = 360;
-    public static final int BOARD_HEIGHT = 640;
-
-    // Game images (background, bird, pipes)
-    private Image backgroundImg, birdImg, topPipeImg, bottomPipeImg;
-
-    // Bird properties
-    private static final int BIRD_WIDTH = 34;
-    private static final int BIRD_HEIGHT = 24;
-    private int birdX = BOARD_WIDTH / 8, birdY = BOARD_HEIGHT / 2;
-
-    // Pipe properties
-    private static final int PIPE_WIDTH = 64;
-    private static final int PIPE_HEIGHT = 512;
-    private int pipeX = BOARD_WIDTH, pipeY = 0;
-
-    // Game logic variables
-    private Bird bird;
-    private int velocityX = -4, velocityY = 0, gravity = 1;
-    private ArrayList<Pipe> pipes;
-    private Timer gameLoop, pipeGenerator, flickerMessageTimer;
-    private boolean gameOver = false, isJumping = false, gameStarted = false, showMessage = true;
-    private double score = 0;
-    private Clip backgroundMusic;
+    public static final int BOARD_WIDTH = GameSimulation.BOARD_WIDTH;
+    public static final int BOARD_HEIGHT = GameSimulation.BOARD_HEIGHT;
+
+    // Sprite sizes
+    static final int BIRD_WIDTH = GameSimulation.BIRD_WIDTH;
+    static final int BIRD_HEIGHT = GameSimulation.BIRD_HEIGHT;
+    static final int PIPE_WIDTH = GameSimulation.PIPE_WIDTH;
+    static final int PIPE_HEIGHT = GameSimulation.PIPE_HEIGHT;
+
+    private static final String BACKGROUND_MUSIC = "/resources/sfx/backgroundmusic.wav";
+
+    // -Dflappybird.activeRendering=true draws gameplay into a BufferStrategy canvas from the loop thread
+    private static final boolean ACTIVE_RENDERING = Boolean.getBoolean("flappybird.activeRendering");
+    // -Dflappybird.frameStats=true prints the timing metrics at the end of every run
+    private static final boolean FRAME_STATS = Boolean.getBoolean("flappybird.frameStats");
+    // -Dflappybird.replayDir=path saves a replay of every finished run in that directory
+    private static final String REPLAY_DIR = System.getProperty("flappybird.replayDir");
+    private static final DateTimeFormatter REPLAY_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // Game state
+    private final GameSimulation simulation = new GameSimulation(LeaderboardService.issueSeed());
+    private Replay.Recorder recorder = Replay.record(simulation.getSeed(), false); // Guarded by stateLock
+    private Replay replay; // The finished run, submitted with its score
+    private final int birdSprite; // Atlas id of the chosen skin
+    private GameLoop gameLoop;
+    private Timer flickerMessageTimer;
+    private volatile double renderAlpha = 0; // Interpolation factor between the last two ticks
+    private final Object stateLock = new Object(); // Guards the simulation and input shared by the loop thread and the EDT
+    private boolean spaceHeld = false, spaceTapped = false, showMessage = true;
     private JButton addToLeaderboardButton;
+    private ActiveRenderer activeRenderer; // Null on the Swing path
+    private final GameMetrics metrics = GameMetrics.getInstance();
 
     // Constructor to initialize the game
-    public FlappyBird(Image selectedBirdImg) {
+    public FlappyBird(int birdSkin) {
         setPreferredSize(new Dimension(BOARD_WIDTH, BOARD_HEIGHT));
         setFocusable(true);
         addKeyListener(this);
         setLayout(null); // Set layout to null to manually control component positioning
 
-        // Load images for the game
-        loadImages(selectedBirdImg);
+        // The bird is drawn from the sprite atlas
+        birdSprite = SpriteAtlas.bird(birdSkin);
 
-        // Initialize the bird object
-        bird = new Bird(birdImg);
-        pipes = new ArrayList<>();
+        if (ACTIVE_RENDERING) {
+            activeRenderer = new ActiveRenderer();
+            activeRenderer.setBounds(0, 0, BOARD_WIDTH, BOARD_HEIGHT);
+            add(activeRenderer);
+        }
         
+        // Metrics cover this game only
+        metrics.reset();
+
         // Initialize timers for game loop and pipe generation
         initializeTimers();
     }
 
-    private void loadImages(Image selectedBirdImg) {
-        // Loading images for the game (background, bird, pipes)
-        backgroundImg = new ImageIcon(getClass().getResource("/resources/flappybirdbg.png")).getImage();
-        birdImg = selectedBirdImg;
-        topPipeImg = new ImageIcon(getClass().getResource("/resources/pipes/toppipe.png")).getImage();
-        bottomPipeImg = new ImageIcon(getClass().getResource("/resources/pipes/bottompipe.png")).getImage();
-    }
-
-    private void adjustPipeDistance() {
-        if (score >= 10) {
-            // Reduce the delay for pipe generation dynamically as the score increases
-            int newDelay = 1500 - (int) (score * 10); // Decrease delay by 10ms per point
-            pipeGenerator.setDelay(Math.max(newDelay, 800)); // Minimum delay of 800ms
-        } else {
-            pipeGenerator.setDelay(1500); // Default pipe generation interval
-        }
-    }   
 
     private void initializeTimers() {
-        // Timer to generate pipes at intervals
-        pipeGenerator = new Timer(1500, e -> {
-            if (gameStarted && !gameOver) {
-                spawnPipes();
-                adjustPipeDistance();
-            }
-        });
-        pipeGenerator.start();
-
-        // Main game loop timer, runs at 60 FPS
-        gameLoop = new Timer(1000 / 60, this);
+        // Fixed-timestep game loop, ticks at 60 Hz and renders at the display refresh rate
+        gameLoop = new GameLoop(this);
         gameLoop.start();
 
         // Timer to toggle the start message visibility
         flickerMessageTimer = new Timer(500, e -> {
-            if (!gameStarted) {
+            if (!simulation.isStarted()) {
                 showMessage = !showMessage;
                 repaint();
             }
@@ -94,78 +91,74 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener {
         flickerMessageTimer.start();
     }
 
-    private void spawnPipes() {
-        // Base opening space between pipes
-        int baseOpeningSpace = BOARD_HEIGHT / 4; // Default opening space (1/4 of the screen height)
-        
-        // Gradual reduction in opening space based on score
-        int openingSpace = baseOpeningSpace - (int) (score / 20) * 10; // Reduce by 10px every 20 points
-        
-        // Ensure a reasonable minimum opening space
-        openingSpace = Math.max(openingSpace, 150); // Minimum opening space of 150px
-        
-        // Random vertical position for the top pipe
-        int randomPipeY = (int) (pipeY - PIPE_HEIGHT / 4 - Math.random() * (PIPE_HEIGHT / 2));
-        
-        // Create top pipe
-        Pipe topPipe = new Pipe(topPipeImg);
-        topPipe.x = BOARD_WIDTH; // Start at the right edge
-        topPipe.y = randomPipeY;
-        pipes.add(topPipe);
-        
-        // Create bottom pipe
-        Pipe bottomPipe = new Pipe(bottomPipeImg);
-        bottomPipe.x = BOARD_WIDTH; // Start at the right edge
-        bottomPipe.y = topPipe.y + PIPE_HEIGHT + openingSpace;
-        pipes.add(bottomPipe);
-    }
-      
 
     @Override
     public void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        draw(g);
+        // No super.paintComponent: the background sprite covers the whole board, and the UI
+        // delegate's scratch Graphics would be the only allocation left in a frame
+        metrics.paintStarted();
+        synchronized (stateLock) {
+            draw(g, renderAlpha);
+        }
+        if (activeRenderer == null) {
+            metrics.framePresented();
+        }
+    }
+
+    private void draw(Graphics g, double alpha) {
+        long start = System.nanoTime();
+        drawFrame(g, getGraphicsConfiguration(), simulation, birdSprite, showMessage, alpha);
+        metrics.recordPaint(System.nanoTime() - start);
+        if (metrics.isOverlayVisible()) {
+            MetricsOverlay.draw(g, metrics.getOverlayLines());
+        }
     }
 
-    private void draw(Graphics g) {
-        // Drawing background, pipes, bird, and score
-        g.drawImage(backgroundImg, 0, 0, BOARD_WIDTH, BOARD_HEIGHT, null);
-        pipes.forEach(pipe -> g.drawImage(pipe.img, pipe.x, pipe.y, pipe.width, pipe.height, null));
-        g.drawImage(bird.img, bird.x, bird.y, BIRD_WIDTH, BIRD_HEIGHT, null);
+    // One whole frame of a simulation's state. Depends on nothing but its arguments, so a frame can
+    // also be drawn offscreen, e.g. into a BufferedImage; a null config draws from the plain sprites
+    static void drawFrame(Graphics g, GraphicsConfiguration config, GameSimulation simulation,
+                          int birdSprite, boolean showMessage, double alpha) {
+        // Drawing background, pipes, bird, and score, interpolated between the last two ticks.
+        // Sprites are already at board size, so each is an unscaled blit out of the atlas
+        SpriteAtlas atlas = SpriteAtlas.getInstance();
+        PipeRing pipes = simulation.getPipes();
+        atlas.draw(g, config, SpriteAtlas.BACKGROUND, 0, 0);
+        for (int i = 0; i < pipes.size(); i++) {
+            int p = pipes.slot(i);
+            int sprite = pipes.top[p] ? SpriteAtlas.TOP_PIPE : SpriteAtlas.BOTTOM_PIPE;
+            atlas.draw(g, config, sprite, interpolate(pipes.prevX[p], pipes.x[p], alpha), pipes.y[p]);
+        }
+        atlas.draw(g, config, birdSprite, GameSimulation.BIRD_X, interpolate(simulation.getPrevBirdY(), simulation.getBirdY(), alpha));
 
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Inter", Font.BOLD, 32));
 
         // If game over, display game over message
-        if (gameOver) {
-            drawGameOver(g);
+        if (simulation.isGameOver()) {
+            drawGameOver(g, simulation);
         } else {
-            drawScore(g);
+            drawScore(g, simulation);
         }
 
         // If game hasn't started, show start message
-        if (!gameStarted && showMessage) {
+        if (!simulation.isStarted() && showMessage) {
             showStartMessage(g);
         }
     }
 
-    private void drawGameOver(Graphics g) {
-        String gameOverMessage = "Game Over: " + (int) score;
-        FontMetrics fm = g.getFontMetrics();
-        int x = (BOARD_WIDTH - fm.stringWidth(gameOverMessage)) / 2;
+    private static int interpolate(int previous, int current, double alpha) {
+        return (int) Math.round(previous + (current - previous) * alpha);
+    }
+
+    private static void drawGameOver(Graphics g, GameSimulation simulation) {
+        // "Game Over: " followed by the score digits, centred together
+        int finalScore = (int) simulation.getScore();
+        int x = (BOARD_WIDTH - RenderResources.GAME_OVER.width - RenderResources.SCORE_DIGITS.width(finalScore)) / 2;
         int y = 50;
-        g.drawString(gameOverMessage, x, y);
-    
-        // Initialize the "Add to Leaderboard" button if it's not already initialized
-        if (addToLeaderboardButton == null) {
-            addLeaderboardButton();
-        }
+        RenderResources.GAME_OVER.draw(g, x, y);
+        RenderResources.SCORE_DIGITS.draw(g, finalScore, x + RenderResources.GAME_OVER.width, y);
     
-        String retryMessage = "Press Q to Restart";
-        fm = g.getFontMetrics();
-        x = (BOARD_WIDTH - fm.stringWidth(retryMessage)) / 2;
-        y = BOARD_HEIGHT / 2;
-        g.drawString(retryMessage, x, y);
+        // The "Add to Leaderboard" button is added by showGameOverControls, not while painting
+        RenderResources.PRESS_Q.drawCentered(g, 0, BOARD_WIDTH, BOARD_HEIGHT / 2);
     }
     
     private void addLeaderboardButton() {
@@ -179,14 +172,14 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener {
             addToLeaderboardButton.setBounds(buttonX, buttonY, buttonWidth, buttonHeight);
     
             // Set default and hover colors
-            Color defaultColor = new Color(76, 175, 80); // Green color
-            Color hoverColor = new Color(114, 237, 118); // RGB hover color
+            Color defaultColor = RenderResources.BUTTON; // Green color
+            Color hoverColor = RenderResources.GAME_BUTTON_HOVER; // RGB hover color
     
             addToLeaderboardButton.setBackground(defaultColor);
             addToLeaderboardButton.setForeground(Color.WHITE); // Text color
             addToLeaderboardButton.setFocusPainted(false); // Remove focus border
             addToLeaderboardButton.setBorderPainted(false); // No border for button
-            addToLeaderboardButton.setFont(new Font("Inter", Font.BOLD, 18));
+            addToLeaderboardButton.setFont(RenderResources.GAME_BUTTON_FONT);
     
             // Disable the default press effect
             addToLeaderboardButton.setUI(new javax.swing.plaf.basic.BasicButtonUI() {
@@ -229,29 +222,20 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener {
     }
     
 
-    private void drawScore(Graphics g) {
-        // Drawing the current score on the screen
-        String scoreText = String.valueOf((int) score);
-        FontMetrics fm = g.getFontMetrics();
-        int x = (BOARD_WIDTH - fm.stringWidth(scoreText)) / 2;
-        int y = 50;
-        g.drawString(scoreText, x, y);
+    private static void drawScore(Graphics g, GameSimulation simulation) {
+        // Drawing the current score on the screen from cached digit glyphs, no String per frame
+        RenderResources.SCORE_DIGITS.drawCentered(g, (int) simulation.getScore(), 0, BOARD_WIDTH, 50);
     }
 
-    private void showStartMessage(Graphics g) {
+    private static void showStartMessage(Graphics g) {
         // Display start message "Press Spacebar"
-        String message = "Press Spacebar";
-        FontMetrics fm = g.getFontMetrics();
-        int x = (BOARD_WIDTH - fm.stringWidth(message)) / 2;
-        int y = BOARD_HEIGHT / 2;
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Inter", Font.BOLD, 30));
-        g.drawString(message, x, y);
+        RenderResources.PRESS_SPACE.drawCentered(g, 0, BOARD_WIDTH, BOARD_HEIGHT / 2);
     }
 
     private void showLeaderboard() {
         // Display the leaderboard screen after the game ends
-        Leaderboard leaderboardPanel = new Leaderboard(score);
+        Leaderboard leaderboardPanel = new Leaderboard(simulation.getScore(), replay);
         JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
         frame.getContentPane().removeAll();
         frame.getContentPane().add(leaderboardPanel);
@@ -259,62 +243,9 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener {
         frame.repaint();
     }
 
-    private void move() {
-        // Game mechanics to move the bird and check for collisions
-        if (!gameStarted || gameOver) return;
-
-        velocityY += gravity;
-        bird.y += velocityY;
-        bird.y = Math.max(bird.y, 0);
-
-        for (Pipe pipe : pipes) {
-            pipe.x += velocityX;
-
-            // If bird passes a pipe, increment score
-            if (!pipe.passed && bird.x > pipe.x + pipe.width) {
-                score += 0.5;
-                playPassPipeSound();
-                pipe.passed = true;
-            }
-
-            // Check for collision with pipes
-            if (checkCollision(bird, pipe)) {
-                gameOver = true;
-                velocityY = 5;
-                playGameOverSound();
-            }
-        }
-
-        // If bird falls below screen, game over
-        if (bird.y > BOARD_HEIGHT) {
-            gameOver = true;
-            velocityY = 0;
-            playGameOverSound();
-        }
-
-        // Handle gravity after game over
-        if (gameOver) {
-            velocityY += gravity;
-            bird.y += velocityY;
-        }
-    }
-
-    private boolean checkCollision(Bird bird, Pipe pipe) {
-        // Check if the bird collides with the pipe
-        return bird.x < pipe.x + pipe.width && bird.x + bird.width > pipe.x &&
-               bird.y < pipe.y + pipe.height && bird.y + bird.height > pipe.y;
-    }
-
     private void playSound(String filePath) {
-        // Utility method to play sound effects
-        try {
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(getClass().getResource(filePath));
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            clip.start();
-        } catch (Exception e) {
-            System.err.println("Error playing sound: " + e.getMessage());
-        }
+        // Utility method to play sound effects through the shared engine
+        SoundEngine.getInstance().play(filePath);
     }
 
     private void playJumpSound() {
@@ -335,60 +266,131 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener {
 
     private void playBackgroundMusic() {
         // Play background music in a loop
-        try {
-            if (backgroundMusic == null || !backgroundMusic.isRunning()) {
-                AudioInputStream audioIn = AudioSystem.getAudioInputStream(getClass().getResource("/resources/sfx/backgroundmusic.wav"));
-                backgroundMusic = AudioSystem.getClip();
-                backgroundMusic.open(audioIn);
-                backgroundMusic.loop(Clip.LOOP_CONTINUOUSLY);
-                backgroundMusic.start();
-            }
-        } catch (Exception e) {
-            System.err.println("Error playing background music: " + e.getMessage());
+        SoundEngine sound = SoundEngine.getInstance();
+        if (!sound.isPlaying(BACKGROUND_MUSIC)) {
+            sound.loop(BACKGROUND_MUSIC);
         }
     }
 
     private void stopBackgroundMusic() {
         // Stop background music when game over
-        if (backgroundMusic != null && backgroundMusic.isRunning()) {
-            backgroundMusic.stop();
-        }
+        SoundEngine.getInstance().stop(BACKGROUND_MUSIC);
     }
 
     @Override
-    public void actionPerformed(ActionEvent e) {
-        move();
-        repaint();
-    
-        if (gameOver) {
-            // Only stop the timers after the game is over
-            pipeGenerator.stop();
+    public void tick() {
+        // Runs on the game loop thread, one fixed step of simulated time.
+        // A tap that was pressed and released since the last tick still counts as held for this one
+        int events;
+        boolean over;
+        synchronized (stateLock) {
+            boolean flap = spaceHeld || spaceTapped;
+            events = simulation.step(flap);
+            recorder.record(flap);
+            spaceTapped = false;
+            over = simulation.isGameOver();
+        }
+
+        if ((events & GameSimulation.STARTED) != 0) {
+            playBackgroundMusic();
+            SwingUtilities.invokeLater(flickerMessageTimer::stop);
+        }
+        if ((events & GameSimulation.FLAPPED) != 0) {
+            playJumpSound();
+        }
+        if ((events & GameSimulation.PASSED_PIPE) != 0) {
+            playPassPipeSound();
+        }
+        if ((events & GameSimulation.DIED) != 0) {
+            playGameOverSound();
+        }
+
+        if (over) {
+            // Only stop the loop after the game is over
             gameLoop.stop();
-    
-            // Initialize the leaderboard button if it's null
-            if (addToLeaderboardButton == null) {
-                addLeaderboardButton();
+            SwingUtilities.invokeLater(this::showGameOverControls);
+        }
+    }
+
+    @Override
+    public void render(double alpha) {
+        renderAlpha = alpha;
+        // The game-over frame goes through Swing, it adds the leaderboard button
+        if (activeRenderer != null && activeRenderer.isVisible() && !simulation.isGameOver()) {
+            // Draw and flip right here on the loop thread
+            boolean presented = activeRenderer.render(g -> {
+                synchronized (stateLock) {
+                    draw(g, alpha);
+                }
+            });
+            if (presented) {
+                metrics.framePresented();
+                return;
             }
-    
-            // Make the leaderboard button visible
-            addToLeaderboardButton.setVisible(true);
         }
+        metrics.repaintRequested();
+        repaint();
+    }
+
+    private void showGameOverControls() {
+        if (activeRenderer != null) {
+            activeRenderer.setVisible(false); // Hand the board back to Swing so the button can show
+        }
+        if (FRAME_STATS) {
+            String mode = activeRenderer != null ? "Active (" + activeRenderer.getPresentMode() + ")" : "Swing";
+            System.out.println(mode + " rendering metrics:\n" + metrics.getSummary());
+        }
+        synchronized (stateLock) {
+            replay = recorder.finish();
+        }
+        if (REPLAY_DIR != null) {
+            saveReplay(replay);
+        }
+        repaint();
+
+        // Initialize the leaderboard button if it's null
+        if (addToLeaderboardButton == null) {
+            addLeaderboardButton();
+        }
+
+        // Make the leaderboard button visible
+        addToLeaderboardButton.setVisible(true);
+    }
+
+    // A few hundred bytes, named by when the run ended and its score
+    private void saveReplay(Replay replay) {
+        Path file = Path.of(REPLAY_DIR, "replay-" + LocalDateTime.now().format(REPLAY_TIME) + "-"
+                + (int) simulation.getScore() + Replay.FILE_EXTENSION);
+        try {
+            Files.createDirectories(file.getParent());
+            replay.write(file);
+        } catch (IOException e) {
+            System.err.println("Error saving replay to " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        // Stop the loop thread when the panel leaves the window
+        gameLoop.stop();
+        flickerMessageTimer.stop();
+        super.removeNotify();
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
-        // Handle key press events (spacebar to jump, Q to restart)
-        if (e.getKeyCode() == KeyEvent.VK_Q && gameOver) {
-            resetGame();
-        } else if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-            if (!gameStarted) {
-                gameStarted = true;
-                playBackgroundMusic();
-                flickerMessageTimer.stop();
-            } else if (!isJumping) {
-                velocityY = -9;
-                playJumpSound();
-                isJumping = true;
+        // Handle key press events (spacebar to jump, Q to restart, F3 for the metrics overlay); the simulation reads them next tick
+        if (e.getKeyCode() == KeyEvent.VK_F3) {
+            metrics.setOverlayVisible(!metrics.isOverlayVisible());
+            repaint(); // The loop is stopped on the game over screen
+            return;
+        }
+        synchronized (stateLock) {
+            if (e.getKeyCode() == KeyEvent.VK_Q && simulation.isGameOver()) {
+                resetGame();
+            } else if (e.getKeyCode() == KeyEvent.VK_SPACE) {
+                spaceHeld = true;
+                spaceTapped = true;
             }
         }
     }
@@ -398,21 +400,25 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener {
 
     @Override
     public void keyReleased(KeyEvent e) {
-        // Stop jumping when spacebar is released
+        // Releasing the spacebar arms the next flap
         if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-            isJumping = false;
+            synchronized (stateLock) {
+                spaceHeld = false;
+            }
         }
     }
 
     private void resetGame() {
-        // Reset game to initial state
-        bird.y = BOARD_HEIGHT / 2;
-        velocityY = 0;
-        pipes.clear();
-        score = 0;
-        gameOver = false;
+        // Reset game to initial state with a newly issued seed, playing straight away as before
+        simulation.reset(LeaderboardService.issueSeed());
+        simulation.start();
+        recorder = Replay.record(simulation.getSeed(), true);
+        spaceHeld = spaceTapped = false;
+        metrics.reset();
+        if (activeRenderer != null) {
+            activeRenderer.setVisible(true);
+        }
         gameLoop.start();
-        pipeGenerator.start();
         playBackgroundMusic();
         flickerMessageTimer.start();
 
@@ -423,25 +429,4 @@ public class FlappyBird extends JPanel implements ActionListener, KeyListener {
         revalidate();
         repaint();
     }
-
-    private class Bird {
-        int x = birdX, y = birdY;
-        int width = BIRD_WIDTH, height = BIRD_HEIGHT;
-        Image img;
-
-        Bird(Image img) {
-            this.img = img;
-        }
-    }
-
-    private class Pipe {
-        int x = pipeX, y = pipeY;
-        int width = PIPE_WIDTH, height = PIPE_HEIGHT;
-        boolean passed = false;
-        Image img;
-
-        Pipe(Image img) {
-            this.img = img;
-        }
-    }
 }
@@ -0,0 +1,125 @@
+package com.flappybird;
+
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.locks.LockSupport;
+
+import com.flappybird.metrics.GameMetrics;
+
+// Fixed-timestep game loop running on its own thread.
+// The simulation always advances in steps of TICK_NANOS, no matter how often frames are rendered,
+// and each frame is rendered with the fraction of a tick left over in the accumulator.
+// Tick durations and any simulated time given up after a stall are reported to GameMetrics.
+public class GameLoop implements Runnable {
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+
+    // Upper bound on catch-up work after a stall (debugger, GC pause, window drag)
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+    private static final int MAX_TICKS_PER_FRAME = 8;
+
+    // Callbacks implemented by the game
+    public interface Game {
+        // Advance the simulation by exactly one fixed step
+        void tick();
+
+        // Present the state, alpha in [0, 1) is the position between the previous and the current tick
+        void render(double alpha);
+    }
+
+    private final Game game;
+    private final long frameNanos;
+    private volatile boolean running = false;
+    private volatile Thread thread; // The current loop thread; one that finds it replaced exits
+
+    public GameLoop(Game game) {
+        this(game, displayRefreshRate());
+    }
+
+    public GameLoop(Game game, int framesPerSecond) {
+        this.game = game;
+        this.frameNanos = 1_000_000_000L / Math.max(framesPerSecond, 1);
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        GameMetrics.getInstance().setTargetFrameNanos(frameNanos);
+        thread = new Thread(this, "flappybird-game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Safe to call from any thread, including from inside tick() or render()
+    public synchronized void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            LockSupport.unpark(thread);
+        }
+        thread = null;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        Thread self = Thread.currentThread();
+        GameMetrics metrics = GameMetrics.getInstance();
+        long previous = System.nanoTime();
+        long accumulator = 0;
+
+        while (running && thread == self) {
+            long frameStart = System.nanoTime();
+            long elapsed = frameStart - previous;
+            if (elapsed > MAX_FRAME_NANOS) {
+                metrics.ticksDropped((elapsed - MAX_FRAME_NANOS) / TICK_NANOS);
+                elapsed = MAX_FRAME_NANOS;
+            }
+            previous = frameStart;
+            accumulator += elapsed;
+
+            // Consume the accumulated time in fixed steps
+            int ticks = 0;
+            while (accumulator >= TICK_NANOS && ticks < MAX_TICKS_PER_FRAME && running) {
+                long tickStart = System.nanoTime();
+                game.tick();
+                metrics.recordTick(System.nanoTime() - tickStart);
+                accumulator -= TICK_NANOS;
+                ticks++;
+            }
+            if (ticks == MAX_TICKS_PER_FRAME) {
+                metrics.ticksDropped(accumulator / TICK_NANOS);
+                accumulator %= TICK_NANOS; // Drop the backlog instead of spiralling
+            }
+
+            game.render((double) accumulator / TICK_NANOS);
+
+            // Sleep until the next frame is due
+            long sleep = frameNanos - (System.nanoTime() - frameStart);
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+        }
+    }
+
+    // Render rate: -Dflappybird.fps overrides the refresh rate reported by the primary display
+    private static int displayRefreshRate() {
+        Integer configured = Integer.getInteger("flappybird.fps");
+        if (configured != null && configured > 0) {
+            return configured;
+        }
+        try {
+            if (!GraphicsEnvironment.isHeadless()) {
+                DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode();
+                if (mode.getRefreshRate() != DisplayMode.REFRESH_RATE_UNKNOWN) {
+                    return mode.getRefreshRate();
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error reading display refresh rate: " + e.getMessage());
+        }
+        return TICKS_PER_SECOND;
+    }
+}
@@ -3,24 +3,17 @@ package com.flappybird;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import javax.sound.sampled.*;
-import java.io.File;
-import java.io.IOException;
-import com.flappybird.database.DatabaseConnection;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+
+import com.flappybird.sim.Replay;
 
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableColumnModel;
 
-import java.sql.ResultSet;
-import java.sql.Statement;
-
 public class Leaderboard extends JPanel {
     private double score;
+    private final Replay replay; // The run that scored it, checked before the score is saved
     private Image backgroundImage;
     private JLabel titleLabel;
     private JLabel backButton;
@@ -29,22 +22,21 @@ public class Leaderboard extends JPanel {
     private JButton submitButton;
     private JTable leaderboardTable;
     private boolean hasSubmitted = false;  // Flag to track submission status
+    private LeaderboardService leaderboardService;
+    private Timer refreshTimer;
     
 
-    // Constructor to initialize the leaderboard with a score
-    public Leaderboard(double score) {
+    // Constructor to initialize the leaderboard with a score and the replay of the run
+    public Leaderboard(double score, Replay replay) {
         this.score = score;
+        this.replay = replay;
         loadBackgroundImage();
         initializeUI();
     }
 
-    // Load the background image with error handling
+    // Load the background image, shared with every other panel through the asset cache
     private void loadBackgroundImage() {
-        try {
-            backgroundImage = new ImageIcon(getClass().getResource("/resources/leaderboardbg.png")).getImage();
-        } catch (Exception e) {
-            System.err.println("Error loading background image: " + e.getMessage());
-        }
+        backgroundImage = AssetCache.getInstance().get("/resources/leaderboardbg.png");
     }
 
     // Initialize the user interface components
@@ -71,8 +63,8 @@ public class Leaderboard extends JPanel {
         });
 
         // Start the timer for auto-refresh (refresh every 5 seconds)
-        Timer timer = new Timer(5000, e -> loadLeaderboardData());
-        timer.start();
+        refreshTimer = new Timer(5000, e -> loadLeaderboardData());
+        refreshTimer.start();
 
         // Initial layout adjustment
         adjustLayout();
@@ -80,7 +72,9 @@ public class Leaderboard extends JPanel {
 
     // Create the leaderboard table method
     private JScrollPane createLeaderboardTable() {
-        leaderboardTable = new JTable(new DefaultTableModel(new Object[]{"No", "Name", "Score"}, 0));
+        LeaderboardTableModel model = new LeaderboardTableModel();
+        leaderboardTable = new JTable(model);
+        leaderboardService = new LeaderboardService(model);
         leaderboardTable.setFillsViewportHeight(true);
         leaderboardTable.setEnabled(false); // Make it read-only
 
@@ -177,33 +171,19 @@ public class Leaderboard extends JPanel {
         return scrollPane;
     }
     
-    // Load data from the database into the table
+    // Load data from the database into the table, off the Event Dispatch Thread
     private void loadLeaderboardData() {
-        DefaultTableModel model = (DefaultTableModel) leaderboardTable.getModel();
-        model.setRowCount(0); // Clear existing rows
-    
-        DatabaseConnection dbConnection = new DatabaseConnection();
-        Connection conn = dbConnection.connect();
-        if (conn != null) {
-            try {
-                String query = "SELECT ROW_NUMBER() OVER (ORDER BY score DESC) AS rank, name, score FROM leaderboard";
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(query);
-    
-                while (rs.next()) {
-                    int rank = rs.getInt("rank");
-                    String name = rs.getString("name");
-                    int score = rs.getInt("score");
-                    model.addRow(new Object[]{rank, name, score});
-                }
-    
-                rs.close();
-                stmt.close();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(this, "Error loading leaderboard data.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        }
+        leaderboardService.refresh().exceptionally(ex -> {
+            reportError(ex, "Error loading leaderboard data.");
+            return null;
+        });
+    }
+
+    // Log a background failure and tell the player on the Event Dispatch Thread
+    private void reportError(Throwable ex, String message) {
+        if (ex instanceof CancellationException || ex.getCause() instanceof CancellationException) return;
+        ex.printStackTrace();
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE));
     }
     
 
@@ -226,7 +206,7 @@ public class Leaderboard extends JPanel {
             @Override
             public void mouseEntered(MouseEvent e) {
                 label.setForeground(Color.RED);
-                playSound("src/resources/sfx/menuhoverclick.wav");
+                playSound("/resources/sfx/menuhoverclick.wav");
             }
 
             @Override
@@ -236,7 +216,7 @@ public class Leaderboard extends JPanel {
 
             @Override
             public void mouseClicked(MouseEvent e) {
-                playSound("src/resources/sfx/back.wav");
+                playSound("/resources/sfx/back.wav");
                 backToPreviousClass();
             }
         });
@@ -268,16 +248,7 @@ public class Leaderboard extends JPanel {
             if (playerName.isEmpty() || playerName.equals("What is your name?")) {
                 JOptionPane.showMessageDialog(this, "Please enter your name.", "Error", JOptionPane.ERROR_MESSAGE);
             } else {
-                int playerRank = saveScoreToDatabase(playerName, (int) score);
-                if (playerRank != -1) {
-                    JOptionPane.showMessageDialog(this,
-                        "Congratulations! You are ranked #" + playerRank + " on the leaderboard!",
-                        playerName,
-                        JOptionPane.INFORMATION_MESSAGE
-                    );
-                } else {
-                    JOptionPane.showMessageDialog(this, "Error fetching your rank.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                saveScoreToDatabase(playerName, (int) score);
         
                 hasSubmitted = true;
                 updateSubmitButtonState(false);
@@ -290,48 +261,32 @@ public class Leaderboard extends JPanel {
 
     
 
-// Save score to the database and retrieve the player's rank
-private int saveScoreToDatabase(String playerName, int score) {
-    DatabaseConnection dbConnection = new DatabaseConnection();
-    Connection conn = dbConnection.connect();
-    int playerRank = -1; // Default to -1 if rank can't be found
-
-    if (conn != null) {
-        try {
-            // Insert the score into the database
-            String insertQuery = "INSERT INTO leaderboard (name, score) VALUES (?, ?)";
-            PreparedStatement insertStmt = conn.prepareStatement(insertQuery);
-            insertStmt.setString(1, playerName);
-            insertStmt.setInt(2, score);
-            insertStmt.executeUpdate();
-            insertStmt.close();
-
-            // Retrieve the rank of the player's score
-            String rankQuery = """
-                SELECT rank
-                FROM (
-                    SELECT ROW_NUMBER() OVER (ORDER BY score DESC) AS rank, name, score
-                    FROM leaderboard
-                ) ranked
-                WHERE name = ? AND score = ?
-            """;
-            PreparedStatement rankStmt = conn.prepareStatement(rankQuery);
-            rankStmt.setString(1, playerName);
-            rankStmt.setInt(2, score);
-
-            ResultSet rs = rankStmt.executeQuery();
-            if (rs.next()) {
-                playerRank = rs.getInt("rank");
-            }
-
-            rs.close();
-            rankStmt.close();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error saving score to database.", "Error", JOptionPane.ERROR_MESSAGE);
+// Save score to the database in the background and show the player's rank when it arrives
+private void saveScoreToDatabase(String playerName, int score) {
+    leaderboardService.submitScore(playerName, score, replay).whenComplete((standing, ex) -> {
+        if (ex != null && ex.getCause() instanceof LeaderboardService.ScoreRejectedException rejected) {
+            System.err.println(rejected.getMessage());
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, "Your score could not be verified.", "Error", JOptionPane.ERROR_MESSAGE));
+            return;
         }
-    }
-    return playerRank;
+        if (ex != null) {
+            reportError(ex, "Error saving score to database.");
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (standing != null) {
+                JOptionPane.showMessageDialog(this,
+                    "Congratulations! You are ranked #" + standing.rank() + " on the leaderboard (top "
+                        + Math.max(1, Math.round(standing.topPercent())) + "%)!",
+                    playerName,
+                    JOptionPane.INFORMATION_MESSAGE
+                );
+            } else {
+                JOptionPane.showMessageDialog(this, "Error fetching your rank.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+            loadLeaderboardData();
+        });
+    });
 }
 
 
@@ -476,6 +431,13 @@ private int saveScoreToDatabase(String playerName, int score) {
         }
     }
 
+    // Stop auto-refreshing once the panel leaves the window
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
     // Navigate back to the previous class
     private void backToPreviousClass() {
         JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
@@ -487,14 +449,6 @@ private int saveScoreToDatabase(String playerName, int score) {
 
     // Play sound
     private void playSound(String soundFile) {
-        try {
-            File sound = new File(soundFile);
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(sound);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            clip.start();
-        } catch (IOException | UnsupportedAudioFileException | LineUnavailableException e) {
-            System.err.println("Error playing sound: " + e.getMessage());
-        }
+        SoundEngine.getInstance().play(soundFile);
     }
 }
\ No newline at end of file
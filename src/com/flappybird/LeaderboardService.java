@@ -0,0 +1,317 @@
+package com.flappybird;
+
+import com.flappybird.database.DatabaseMetrics;
+import com.flappybird.database.LeaderboardEntry;
+import com.flappybird.database.LeaderboardRepository;
+import com.flappybird.database.LeaderboardStore;
+import com.flappybird.database.LocalLeaderboardStore;
+import com.flappybird.database.NameSearchIndex;
+import com.flappybird.database.RankIndex;
+import com.flappybird.database.SchemaMigrator;
+import com.flappybird.database.LeaderboardStore.TableState;
+import com.flappybird.database.QueryPlanCheck;
+import com.flappybird.sim.GameSimulation;
+import com.flappybird.sim.Replay;
+import com.flappybird.sim.ReplayVerifier;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
+
+// Runs leaderboard queries on a background executor and publishes the rows to a table model.
+// A refresh requested while another is still pending joins it instead of queuing a second query,
+// and starting a new filter makes every earlier request stale so its rows are never shown.
+//
+// Refreshes of the unfiltered table are incremental: the row count and highest id are polled,
+// and only rows inserted after the model's high-water mark are fetched and placed by rank.
+// Anything other than pure inserts (a deleted or edited row) falls back to a full reset.
+// Rows themselves are fetched a page at a time as the table scrolls to them.
+// Name filters are answered from an in-memory n-gram index once it has loaded, with the SQL
+// LIKE scan only as a fallback while it is still loading.
+// Refresh durations, coalesced refreshes and failures are counted in DatabaseMetrics.
+// A score is only saved once its replay, played again, ends with that same score, on a seed issued here.
+// With -Dflappybird.localStore=dir rows are kept in a LocalLeaderboardStore in that directory,
+// synced with MySQL in the background, so scores are saved and ranked while the database is down.
+public class LeaderboardService {
+    private static final int FILTER_LIMIT = 500; // Cap on rows held for a filtered view
+    private static final int MAX_INCREMENTAL_INSERTS = 100; // Beyond this a reset is cheaper
+    private static final long MAX_REPLAY_TICKS = 60L * 60 * GameSimulation.TICKS_PER_SECOND; // An hour of play
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "flappybird-leaderboard");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Shared by every panel, loaded once and kept in step with inserts
+    private static final LeaderboardStore STORE = openStore();
+    private static final RankIndex RANK_INDEX = new RankIndex();
+    private static final NameSearchIndex NAME_INDEX = new NameSearchIndex();
+    private static final DatabaseMetrics METRICS = DatabaseMetrics.getInstance();
+    // One kiosk submits a score at a time, one worker and a short queue are plenty
+    private static final ReplayVerifier VERIFIER = new ReplayVerifier(1, 16, MAX_REPLAY_TICKS);
+
+    private final LeaderboardTableModel model;
+
+    // Guarded by this
+    private CompletableFuture<Void> pending;
+    private long generation = 0;
+    private String filterCriteria = null;
+
+    // A submitted score that its replay does not reproduce
+    public static class ScoreRejectedException extends Exception {
+        private final ReplayVerifier.Verdict verdict;
+
+        public ScoreRejectedException(ReplayVerifier.Verdict verdict) {
+            super("Score rejected by replay verification: " + verdict);
+            this.verdict = verdict;
+        }
+
+        public ReplayVerifier.Verdict getVerdict() {
+            return verdict;
+        }
+    }
+
+    public LeaderboardService(LeaderboardTableModel model) {
+        this.model = model;
+        model.setPageLoader(this::loadPage);
+    }
+
+    // Bring the current view (all rows, or the active filter) up to date
+    public synchronized CompletableFuture<Void> refresh() {
+        if (pending != null && !pending.isDone()) {
+            METRICS.refreshCoalesced();
+            return pending; // Coalesce with the refresh already in flight
+        }
+        return load();
+    }
+
+    // Show only rows whose name contains the criteria, null shows everything again
+    public synchronized CompletableFuture<Void> filter(String criteria) {
+        filterCriteria = criteria;
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        return load();
+    }
+
+    // Bring the schema up to date and load the rank index in the background,
+    // so neither holds up the menus nor the first score submission
+    public static void initializeInBackground() {
+        EXECUTOR.execute(() -> {
+            try {
+                new SchemaMigrator().migrate();
+                if (Boolean.getBoolean("flappybird.explainQueries")) {
+                    new QueryPlanCheck().findProblems().forEach(problem -> System.err.println("Query plan: " + problem));
+                }
+                ensureRankIndex();
+                STORE.syncNameIndex(NAME_INDEX);
+            } catch (SQLException e) {
+                System.err.println("Error initializing leaderboard database: " + e.getMessage());
+            }
+        });
+    }
+
+    // Seed for a new run; only runs played on a seed from here can be submitted, once each
+    public static long issueSeed() {
+        return VERIFIER.issueSeed();
+    }
+
+    // Verify a score against the replay of its run, then insert it in the background and complete with
+    // the player's standing, null if it wasn't saved or can't be ranked. Fails with ScoreRejectedException if the replay disagrees
+    // or wasn't played on a seed from issueSeed()
+    public CompletableFuture<RankIndex.Standing> submitScore(String playerName, int score, Replay replay) {
+        return VERIFIER.submitIssued(replay, score).thenApplyAsync(verdict -> {
+            if (verdict != ReplayVerifier.Verdict.ACCEPTED) {
+                throw new CompletionException(new ScoreRejectedException(verdict));
+            }
+            try {
+                int id = STORE.insertScore(playerName, score);
+                if (id == -1) return null;
+                return standingOf(STORE, RANK_INDEX, id, playerName, score);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    // Compare the rank index with the database and rebuild it if they disagree
+    public CompletableFuture<Boolean> verifyRankIndex() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                synchronized (RANK_INDEX) {
+                    ensureRankIndex();
+                    STORE.syncRankIndex(RANK_INDEX);
+                    List<Integer> mismatches = STORE.checkRankIndex(RANK_INDEX);
+                    if (mismatches.isEmpty()) return true;
+
+                    System.err.println("Rank index out of sync for scores " + mismatches + ", rebuilding");
+                    STORE.loadRankIndex(RANK_INDEX);
+                    return false;
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    // Standing of the row just inserted with this id. The index may have loaded after that insert and
+    // already count ties inserted after it, so the row only sorts last among its ties when it is the last
+    // row counted; otherwise the store says how many rows rank ahead of it
+    static RankIndex.Standing standingOf(LeaderboardStore store, RankIndex index, int id, String playerName, int score)
+            throws SQLException {
+        synchronized (index) {
+            if (!index.isLoaded()) {
+                store.loadRankIndex(index);
+            }
+            for (LeaderboardEntry entry : store.loadSince(index.getHighWaterId())) {
+                if (entry.id() > id) break;
+                index.add(entry.id(), entry.score());
+            }
+            if (index.getHighWaterId() == id) {
+                return index.standingOfNewest(score);
+            }
+            int ahead = store.countRankedBefore(new LeaderboardEntry(id, 0, playerName, score));
+            return index.standingAt(ahead + 1);
+        }
+    }
+
+    // The local store when one is configured and can be opened, MySQL otherwise
+    private static LeaderboardStore openStore() {
+        String directory = System.getProperty("flappybird.localStore");
+        if (directory != null) {
+            try {
+                return LocalLeaderboardStore.open(Path.of(directory), new LeaderboardRepository());
+            } catch (IOException e) {
+                System.err.println("Error opening local leaderboard store, using MySQL only: " + e.getMessage());
+            }
+        }
+        return new LeaderboardRepository();
+    }
+
+    private static void ensureRankIndex() throws SQLException {
+        synchronized (RANK_INDEX) {
+            if (!RANK_INDEX.isLoaded()) {
+                STORE.loadRankIndex(RANK_INDEX);
+            }
+        }
+    }
+
+    private CompletableFuture<Void> load() {
+        long requestGeneration = ++generation;
+        String criteria = filterCriteria;
+        long start = System.nanoTime();
+
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            if (isStale(requestGeneration)) {
+                return; // Superseded before it started, skip the query
+            }
+            try {
+                if (criteria != null) {
+                    List<LeaderboardEntry> entries = searchByName(criteria);
+                    publish(requestGeneration, () -> model.showFiltered(entries));
+                } else {
+                    refreshIncrementally(requestGeneration);
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+        future.whenComplete((ignored, ex) -> {
+            if (!(ex instanceof CancellationException)) {
+                METRICS.recordRefresh(System.nanoTime() - start, ex != null);
+            }
+        });
+
+        pending = future;
+        return future;
+    }
+
+    // Search the name index, caught up to the latest insert, or the database until the index has loaded
+    private List<LeaderboardEntry> searchByName(String criteria) throws SQLException {
+        synchronized (NAME_INDEX) {
+            if (NAME_INDEX.isLoaded()) {
+                STORE.syncNameIndex(NAME_INDEX);
+                return NAME_INDEX.search(criteria, FILTER_LIMIT);
+            }
+        }
+        return STORE.filterByName(criteria, FILTER_LIMIT);
+    }
+
+    private void refreshIncrementally(long requestGeneration) throws SQLException {
+        TableState state = STORE.readState();
+
+        int knownMaxId = model.getMaxId();
+        int knownCount = model.getSize();
+        // A filtered view keeps the whole table's size and high-water mark, so only skip when it's showing
+        if (model.isComplete() && state.maxId() == knownMaxId && state.rowCount() == knownCount) {
+            return; // Nothing changed, leave the table alone
+        }
+
+        if (LeaderboardRepository.RANK_TABLE_ENABLED) {
+            STORE.refreshRankTable(state);
+        }
+
+        int inserted = state.rowCount() - knownCount;
+        if (model.isComplete() && state.maxId() > knownMaxId && inserted > 0 && inserted <= MAX_INCREMENTAL_INSERTS) {
+            List<LeaderboardEntry> added = STORE.loadSince(knownMaxId);
+            if (added.size() == inserted) {
+                // Rank each new row against the current table, then insert in rank order
+                int[] positions = new int[added.size()];
+                for (int i = 0; i < positions.length; i++) {
+                    positions[i] = STORE.countRankedBefore(added.get(i));
+                }
+                Arrays.sort(positions);
+                publish(requestGeneration, () -> model.insertRows(positions, state.maxId()));
+                return;
+            }
+        }
+        publish(requestGeneration, () -> model.reset(state.rowCount(), state.maxId()));
+
+        // Rows were deleted or edited, the rank index may have drifted too
+        if (knownMaxId != 0 && state.rowCount() < knownCount) {
+            verifyRankIndex();
+            synchronized (NAME_INDEX) {
+                NAME_INDEX.clear();
+                STORE.syncNameIndex(NAME_INDEX);
+            }
+        }
+    }
+
+    // Page requests from the model, answered on the EDT with the epoch they were asked under
+    private void loadPage(int page, LeaderboardEntry previous, long epoch) {
+        EXECUTOR.execute(() -> {
+            try {
+                List<LeaderboardEntry> rows = previous != null
+                        ? STORE.loadPageAfter(previous, LeaderboardTableModel.PAGE_SIZE)
+                        : STORE.loadPageAt(page * LeaderboardTableModel.PAGE_SIZE, LeaderboardTableModel.PAGE_SIZE);
+                List<LeaderboardEntry> mutableRows = new ArrayList<>(rows);
+                SwingUtilities.invokeLater(() -> model.putPage(page, mutableRows, epoch));
+            } catch (SQLException e) {
+                System.err.println("Error loading leaderboard page " + page + ": " + e.getMessage());
+                SwingUtilities.invokeLater(() -> model.pageFailed(page, epoch));
+            }
+        });
+    }
+
+    private synchronized boolean isStale(long requestGeneration) {
+        return requestGeneration != generation;
+    }
+
+    // Apply a model update in a single EDT pass, unless a newer request has superseded it
+    private void publish(long requestGeneration, Runnable update) {
+        SwingUtilities.invokeLater(() -> {
+            if (!isStale(requestGeneration)) {
+                update.run();
+            }
+        });
+    }
+}
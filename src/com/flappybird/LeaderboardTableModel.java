@@ -0,0 +1,187 @@
+package com.flappybird;
+
+import com.flappybird.database.LeaderboardEntry;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.table.AbstractTableModel;
+
+// Windowed view of the leaderboard ordered by score (highest first, earliest entry first on ties).
+// Only the row count is known up front; rows are fetched a page at a time when the table asks
+// for them, which JTable only does for rows inside the scroll viewport. A small LRU of pages keeps
+// memory constant however large the table grows. Only touch it from the Event Dispatch Thread;
+// the volatile fields may be read from any thread.
+public class LeaderboardTableModel extends AbstractTableModel {
+    public static final int PAGE_SIZE = 50;
+    private static final int MAX_CACHED_PAGES = 8;
+    private static final int MAX_CACHED_BOUNDARIES = 4096;
+    private static final String[] COLUMNS = {"No", "Name", "Score"};
+    private static final String LOADING = "...";
+
+    // Fetches a page in the background and hands it back through putPage
+    public interface PageLoader {
+        // previous is the last row of the page before, null when it is not cached
+        void loadPage(int page, LeaderboardEntry previous, long epoch);
+    }
+
+    private final Map<Integer, List<LeaderboardEntry>> pages = lruMap(MAX_CACHED_PAGES);
+    private final Map<Integer, LeaderboardEntry> boundaries = lruMap(MAX_CACHED_BOUNDARIES); // Last row of each page
+    private final Set<Integer> requested = new HashSet<>();
+    private PageLoader loader;
+    private List<LeaderboardEntry> filtered; // Non-null while a filter is active
+    private int rowCount = 0;
+    private long epoch = 0; // Bumped whenever cached pages stop matching the table
+
+    private volatile int maxId = 0; // Highest leaderboard.id the row count accounts for
+    private volatile int size = 0;
+    private volatile boolean complete = false; // True when showing the whole unfiltered table
+
+    public void setPageLoader(PageLoader pageLoader) {
+        this.loader = pageLoader;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filtered != null ? filtered.size() : rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        LeaderboardEntry entry = entryAt(row);
+        if (entry == null) {
+            return column == 1 ? LOADING : null; // Page still on its way
+        }
+        switch (column) {
+            case 0: return entry.rank();
+            case 1: return entry.name();
+            default: return entry.score();
+        }
+    }
+
+    public int getMaxId() {
+        return maxId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private LeaderboardEntry entryAt(int row) {
+        if (filtered != null) {
+            return filtered.get(row);
+        }
+        int page = row / PAGE_SIZE;
+        List<LeaderboardEntry> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int index = row % PAGE_SIZE;
+        return index < rows.size() ? rows.get(index) : null;
+    }
+
+    private void requestPage(int page) {
+        if (loader != null && requested.add(page)) {
+            loader.loadPage(page, boundaries.get(page - 1), epoch);
+        }
+    }
+
+    // Store a fetched page and repaint its rows, unless the table changed since it was requested
+    public void putPage(int page, List<LeaderboardEntry> rows, long pageEpoch) {
+        if (pageEpoch != epoch || filtered != null) return;
+        requested.remove(page);
+
+        int first = page * PAGE_SIZE;
+        for (int i = 0; i < rows.size(); i++) {
+            rows.set(i, rows.get(i).withRank(first + i + 1));
+        }
+        pages.put(page, rows);
+        if (!rows.isEmpty()) {
+            boundaries.put(page, rows.get(rows.size() - 1));
+        }
+
+        int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+        if (last >= first) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    // Forget a failed request so the page is retried the next time it is painted
+    public void pageFailed(int page, long pageEpoch) {
+        if (pageEpoch == epoch) {
+            requested.remove(page);
+        }
+    }
+
+    // Show the whole table with the given size, dropping every cached page
+    public void reset(int totalRows, int highestId) {
+        invalidateFrom(0);
+        filtered = null;
+        rowCount = totalRows;
+        maxId = highestId;
+        size = totalRows;
+        complete = true;
+        fireTableDataChanged();
+    }
+
+    // Show a filtered result set held entirely in memory
+    public void showFiltered(List<LeaderboardEntry> rows) {
+        invalidateFrom(0);
+        filtered = rows;
+        complete = false;
+        fireTableDataChanged();
+    }
+
+    // Account for rows inserted since the high-water mark, positions are their zero-based ranks
+    public void insertRows(int[] positions, int highestId) {
+        if (filtered != null) return;
+
+        // Positions are final ranks, so inserting in ascending order keeps each one valid
+        int firstChanged = Integer.MAX_VALUE;
+        for (int position : positions) {
+            int row = Math.min(position, rowCount);
+            rowCount++;
+            fireTableRowsInserted(row, row);
+            firstChanged = Math.min(firstChanged, row);
+        }
+        maxId = Math.max(maxId, highestId);
+        size = rowCount;
+        if (firstChanged == Integer.MAX_VALUE) return;
+
+        // Pages from the first insertion onward have shifted, refetch the visible ones
+        invalidateFrom(firstChanged / PAGE_SIZE);
+        fireTableRowsUpdated(firstChanged, rowCount - 1);
+    }
+
+    private void invalidateFrom(int firstPage) {
+        pages.keySet().removeIf(page -> page >= firstPage);
+        boundaries.keySet().removeIf(page -> page >= firstPage);
+        requested.clear();
+        epoch++; // Pages already in flight were computed against the old ordering
+    }
+
+    private static <V> Map<Integer, V> lruMap(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+}
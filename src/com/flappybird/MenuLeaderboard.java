@@ -3,23 +3,16 @@ package com.flappybird;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import javax.sound.sampled.*;
-import java.io.File;
-import java.io.IOException;
-import com.flappybird.database.DatabaseConnection;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
 
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableColumnModel;
 
-import java.sql.ResultSet;
-import java.sql.Statement;
-
 public class MenuLeaderboard extends JPanel {
+    private static final String PLACEHOLDER = "Find your name...";
+    private static final int SEARCH_DELAY_MILLIS = 250; // Typing pause before the filter runs
+
     private Image backgroundImage;
     private JLabel titleLabel;
     private JLabel backButton;
@@ -27,6 +20,10 @@ public class MenuLeaderboard extends JPanel {
     private JLabel errorLabel;
     private JButton submitButton;
     private JTable leaderboardTable;
+    private LeaderboardService leaderboardService;
+    private Timer refreshTimer;
+    private Timer searchTimer;
+    private String activeSearch = null;
 
     public MenuLeaderboard(JFrame frame) {
         setPreferredSize(new Dimension(FlappyBird.BOARD_WIDTH, FlappyBird.BOARD_HEIGHT));
@@ -35,13 +32,9 @@ public class MenuLeaderboard extends JPanel {
         initializeUI();
     }
 
-    // Load the background image with error handling
+    // Load the background image, shared with every other panel through the asset cache
     private void loadBackgroundImage() {
-        try {
-            backgroundImage = new ImageIcon(getClass().getResource("/resources/leaderboardbg.png")).getImage();
-        } catch (Exception e) {
-            System.err.println("Error loading background image: " + e.getMessage());
-        }
+        backgroundImage = AssetCache.getInstance().get("/resources/leaderboardbg.png");
     }
 
     // Initialize the user interface components
@@ -69,8 +62,8 @@ public class MenuLeaderboard extends JPanel {
         });
     
         // Start the timer for auto-refresh (refresh every 5 seconds)
-        Timer timer = new Timer(5000, e -> loadLeaderboardData());
-        timer.start();
+        refreshTimer = new Timer(5000, e -> loadLeaderboardData());
+        refreshTimer.start();
     
         // Initial layout adjustment
         adjustLayout();
@@ -83,7 +76,9 @@ public class MenuLeaderboard extends JPanel {
 
     // Create the leaderboard table method
     private JScrollPane createLeaderboardTable() {
-        leaderboardTable = new JTable(new DefaultTableModel(new Object[]{"No", "Name", "Score"}, 0));
+        LeaderboardTableModel model = new LeaderboardTableModel();
+        leaderboardTable = new JTable(model);
+        leaderboardService = new LeaderboardService(model);
         leaderboardTable.setFillsViewportHeight(true);
         leaderboardTable.setEnabled(false); // Make it read-only
 
@@ -180,33 +175,19 @@ public class MenuLeaderboard extends JPanel {
         return scrollPane;
     }
     
-    // Load data from the database into the table
+    // Load data from the database into the table, off the Event Dispatch Thread
     private void loadLeaderboardData() {
-        DefaultTableModel model = (DefaultTableModel) leaderboardTable.getModel();
-        model.setRowCount(0); // Clear existing rows
-    
-        DatabaseConnection dbConnection = new DatabaseConnection();
-        Connection conn = dbConnection.connect();
-        if (conn != null) {
-            try {
-                String query = "SELECT ROW_NUMBER() OVER (ORDER BY score DESC) AS rank, name, score FROM leaderboard";
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(query);
-    
-                while (rs.next()) {
-                    int rank = rs.getInt("rank");
-                    String name = rs.getString("name");
-                    int score = rs.getInt("score");
-                    model.addRow(new Object[]{rank, name, score});
-                }
-    
-                rs.close();
-                stmt.close();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(this, "Error loading leaderboard data.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        }
+        leaderboardService.refresh().exceptionally(ex -> {
+            reportError(ex, "Error loading leaderboard data.");
+            return null;
+        });
+    }
+
+    // Log a background failure and tell the player on the Event Dispatch Thread
+    private void reportError(Throwable ex, String message) {
+        if (ex instanceof CancellationException || ex.getCause() instanceof CancellationException) return;
+        ex.printStackTrace();
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE));
     }
     
 
@@ -229,7 +210,7 @@ public class MenuLeaderboard extends JPanel {
             @Override
             public void mouseEntered(MouseEvent e) {
                 label.setForeground(Color.RED);
-                playSound("src/resources/sfx/menuhoverclick.wav");
+                playSound("/resources/sfx/menuhoverclick.wav");
             }
 
             @Override
@@ -239,7 +220,7 @@ public class MenuLeaderboard extends JPanel {
 
             @Override
             public void mouseClicked(MouseEvent e) {
-                playSound("src/resources/sfx/back.wav");
+                playSound("/resources/sfx/back.wav");
                 backToPreviousClass();
             }
         });
@@ -258,7 +239,7 @@ private JButton createFilterButton() {
 
     button.addActionListener(e -> {
         String filterCriteria = placeholderField.getText().trim();
-        if (filterCriteria.isEmpty() || filterCriteria.equals("Enter name to filter...")) {
+        if (filterCriteria.isEmpty() || filterCriteria.equals(PLACEHOLDER)) {
             JOptionPane.showMessageDialog(this, "Please enter a name to filter.", "Error", JOptionPane.ERROR_MESSAGE);
         } else {
             filterLeaderboard(filterCriteria);
@@ -268,34 +249,31 @@ private JButton createFilterButton() {
     return button;
 }
 
-// Filter leaderboard based on player name
-private void filterLeaderboard(String filterCriteria) {
-    DefaultTableModel model = (DefaultTableModel) leaderboardTable.getModel();
-    model.setRowCount(0);
-
-    try (Connection conn = new DatabaseConnection().connect()) {
-        String query = "SELECT ROW_NUMBER() OVER (ORDER BY score DESC) AS rank, name, score FROM leaderboard WHERE name LIKE ?";
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, "%" + filterCriteria + "%");
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    int rank = rs.getInt("rank");
-                    String name = rs.getString("name");
-                    int score = rs.getInt("score");
-                    model.addRow(new Object[]{rank, name, score});
-                }
-            }
-        }
-    } catch (SQLException ex) {
-        ex.printStackTrace();
-        JOptionPane.showMessageDialog(this, "Error filtering leaderboard data.", "Error", JOptionPane.ERROR_MESSAGE);
+// Filter on whatever is in the field once typing pauses, an empty field shows everything again
+private void searchAsYouType() {
+    String text = placeholderField.getText().trim();
+    String criteria = text.isEmpty() || text.equals(PLACEHOLDER) ? null : text;
+    if (criteria == null ? activeSearch != null : !criteria.equals(activeSearch)) {
+        filterLeaderboard(criteria);
     }
 }
 
+// Filter leaderboard based on player name, replacing any filter still in flight
+private void filterLeaderboard(String filterCriteria) {
+    activeSearch = filterCriteria;
+    leaderboardService.filter(filterCriteria).exceptionally(ex -> {
+        reportError(ex, "Error filtering leaderboard data.");
+        return null;
+    });
+}
 
-    // Create and return the placeholder text field
+
+    // Create and return the placeholder text field, filtering as the player types
     private JTextField createPlaceholderField() {
-        JTextField field = new JTextField("Find your name...");
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> searchAsYouType());
+        searchTimer.setRepeats(false);
+
+        JTextField field = new JTextField(PLACEHOLDER);
         field.setBackground(Color.WHITE);
         field.setForeground(Color.GRAY);
         field.setFont(new Font("Inter", Font.PLAIN, 15));
@@ -304,7 +282,7 @@ private void filterLeaderboard(String filterCriteria) {
         field.addFocusListener(new FocusAdapter() {
             @Override
             public void focusGained(FocusEvent e) {
-                if (field.getText().equals("Find your name...")) {
+                if (field.getText().equals(PLACEHOLDER)) {
                     field.setText("");
                     field.setForeground(Color.BLACK);
                 }
@@ -313,7 +291,7 @@ private void filterLeaderboard(String filterCriteria) {
             @Override
             public void focusLost(FocusEvent e) {
                 if (field.getText().isEmpty()) {
-                    field.setText("What is your name?");
+                    field.setText(PLACEHOLDER);
                     field.setForeground(Color.GRAY);
                 }
             }
@@ -323,16 +301,19 @@ private void filterLeaderboard(String filterCriteria) {
             @Override
             public void insertUpdate(javax.swing.event.DocumentEvent e) {
                 enforceCharacterLimit();
+                searchTimer.restart();
             }
 
             @Override
             public void removeUpdate(javax.swing.event.DocumentEvent e) {
                 enforceCharacterLimit();
+                searchTimer.restart();
             }
 
             @Override
             public void changedUpdate(javax.swing.event.DocumentEvent e) {
                 enforceCharacterLimit();
+                searchTimer.restart();
             }
         });
 
@@ -351,7 +332,7 @@ private void filterLeaderboard(String filterCriteria) {
     // Ensure the character limit is enforced
     private void enforceCharacterLimit() {
         String text = placeholderField.getText().trim(); // Trim any leading/trailing spaces
-        if (text.isEmpty() || text.equals("What is your name?")) {
+        if (text.isEmpty() || text.equals(PLACEHOLDER)) {
             errorLabel.setText("Please enter your name.");
             errorLabel.setVisible(true);
             updateSubmitButtonState(false);
@@ -421,6 +402,14 @@ private void filterLeaderboard(String filterCriteria) {
     
     
 
+    // Stop auto-refreshing once the panel leaves the window
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        searchTimer.stop();
+        super.removeNotify();
+    }
+
     // Navigate back to the previous class
     private void backToPreviousClass() {
         JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
@@ -432,14 +421,6 @@ private void filterLeaderboard(String filterCriteria) {
 
     // Play sound
     private void playSound(String soundFile) {
-        try {
-            File sound = new File(soundFile);
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(sound);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            clip.start();
-        } catch (IOException | UnsupportedAudioFileException | LineUnavailableException e) {
-            System.err.println("Error playing sound: " + e.getMessage());
-        }
+        SoundEngine.getInstance().play(soundFile);
     }
 }
\ No newline at end of file
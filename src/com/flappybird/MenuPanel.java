@@ -4,18 +4,15 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
 
 public class MenuPanel extends JPanel {
     private JFrame frame;
     private Image backgroundImg;
-    private String startText = "START GAME";
-    private String leaderboardText = "LEADERBOARD";
+    private Image titleImg;
     private boolean startHover = false;
     private boolean leaderboardHover = false;
     private boolean hoverPlayed = false;
+    private final StaticLayer staticLayer = new StaticLayer(this::drawStaticLayer); // Background and title, drawn once
 
     private final int BUTTON_WIDTH = 250;
     private final int BUTTON_HEIGHT = 45;
@@ -27,7 +24,8 @@ public class MenuPanel extends JPanel {
         setPreferredSize(new Dimension(FlappyBird.BOARD_WIDTH, FlappyBird.BOARD_HEIGHT));
 
         // Load background image
-        backgroundImg = new ImageIcon(getClass().getResource("/resources/flappybirdbg.png")).getImage();
+        backgroundImg = AssetCache.getInstance().get("/resources/flappybirdbg.png");
+        titleImg = AssetCache.getInstance().get("/resources/flappyImg/flappybird.png");
 
         // Add mouse listeners for button interaction
         addMouseListener(new MouseAdapter() {
@@ -53,9 +51,17 @@ public class MenuPanel extends JPanel {
                 int startX = (getWidth() - BUTTON_WIDTH) / 2;
                 int leaderboardX = (getWidth() - BUTTON_WIDTH) / 2;
 
-                // Check hover state for buttons
-                startHover = isHoveringButton(e.getPoint(), startX, START_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT);
-                leaderboardHover = isHoveringButton(e.getPoint(), leaderboardX, LEADERBOARD_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT);
+                // Check hover state for buttons, repainting only a button whose state flipped
+                boolean overStart = isHoveringButton(e.getPoint(), startX, START_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT);
+                boolean overLeaderboard = isHoveringButton(e.getPoint(), leaderboardX, LEADERBOARD_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT);
+                if (overStart != startHover) {
+                    startHover = overStart;
+                    repaint(startX, START_BUTTON_Y, BUTTON_WIDTH + 1, BUTTON_HEIGHT + 1);
+                }
+                if (overLeaderboard != leaderboardHover) {
+                    leaderboardHover = overLeaderboard;
+                    repaint(leaderboardX, LEADERBOARD_BUTTON_Y, BUTTON_WIDTH + 1, BUTTON_HEIGHT + 1);
+                }
 
                 // Play hover sound when hovering over a button
                 if ((startHover || leaderboardHover) && !hoverPlayed) {
@@ -64,8 +70,6 @@ public class MenuPanel extends JPanel {
                 } else if (!startHover && !leaderboardHover) {
                     hoverPlayed = false;
                 }
-
-                repaint();
             }
         });
     }
@@ -74,40 +78,41 @@ public class MenuPanel extends JPanel {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
 
+        // Background and title come from the cached layer, clipped to whatever is dirty
+        staticLayer.paint(g, this);
+
+        // Dynamically calculate button positions and draw the ones inside the dirty region
+        int startX = (getWidth() - BUTTON_WIDTH) / 2;
+        int leaderboardX = (getWidth() - BUTTON_WIDTH) / 2;
+
+        if (g.hitClip(startX, START_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT)) {
+            drawButton(g, startX, START_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT, RenderResources.START_GAME, startHover); // START GAME button
+        }
+        if (g.hitClip(leaderboardX, LEADERBOARD_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT)) {
+            drawButton(g, leaderboardX, LEADERBOARD_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT, RenderResources.LEADERBOARD, leaderboardHover); // LEADERBOARD button
+        }
+    }
+
+    private void drawStaticLayer(Graphics2D g) {
         // Draw background image
         g.drawImage(backgroundImg, 0, 0, getWidth(), getHeight(), null);
 
         // Draw game title image
-        Image gameImage = new ImageIcon(getClass().getResource("/resources/flappyimg/flappybird.png")).getImage();
         int gameImageWidth = 98;
         int gameImageHeight = 80;
         int gameImageX = (getWidth() - gameImageWidth) / 2;
         int gameImageY = 80;
-        g.drawImage(gameImage, gameImageX, gameImageY, gameImageWidth, gameImageHeight, null);
-
-        // Set font for buttons
-        g.setFont(new Font("Inter", Font.BOLD, 21));
-
-        // Dynamically calculate button positions and draw them
-        int startX = (getWidth() - BUTTON_WIDTH) / 2;
-        int leaderboardX = (getWidth() - BUTTON_WIDTH) / 2;
-
-        drawButton(g, startX, START_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT, startText, startHover); // START GAME button
-        drawButton(g, leaderboardX, LEADERBOARD_BUTTON_Y, BUTTON_WIDTH, BUTTON_HEIGHT, leaderboardText, leaderboardHover); // LEADERBOARD button
+        g.drawImage(titleImg, gameImageX, gameImageY, gameImageWidth, gameImageHeight, null);
     }
 
-    private void drawButton(Graphics g, int x, int y, int width, int height, String text, boolean isHovered) {
+    private void drawButton(Graphics g, int x, int y, int width, int height, RenderResources.MeasuredText text, boolean isHovered) {
         // Set button color based on hover state
-        g.setColor(isHovered ? new Color(0xe1d694) : new Color(0x4CAF50));
+        g.setColor(isHovered ? RenderResources.BUTTON_HOVER : RenderResources.BUTTON);
         g.fillRect(x, y, width, height);
 
         // Draw button text centered on the button
         g.setColor(Color.WHITE);
-        FontMetrics fm = g.getFontMetrics();
-        int textWidth = fm.stringWidth(text);
-        int textX = x + (width - textWidth) / 2;
-        int textY = y + (height + fm.getAscent()) / 2 - 5;
-        g.drawString(text, textX, textY);
+        text.drawCentered(g, x, width, y + (height + text.ascent) / 2 - 5);
     }
 
     private boolean isHoveringButton(Point point, int x, int y, int width, int height) {
@@ -142,14 +147,6 @@ public class MenuPanel extends JPanel {
     }
 
     private void playSound(String soundPath) {
-        try {
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(getClass().getResource(soundPath));
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            clip.start();
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            System.out.println("Error playing sound: " + ex.getMessage());
-        }
+        SoundEngine.getInstance().play(soundPath);
     }
 }
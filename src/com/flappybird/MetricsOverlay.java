@@ -0,0 +1,32 @@
+package com.flappybird;
+
+import java.awt.Color;
+import java.awt.Graphics;
+
+// The F3 metrics overlay: GameMetrics' latest lines on a translucent strip along the bottom of the board.
+// The text is formatted a few times a second on the metrics thread, so a frame only draws it.
+final class MetricsOverlay {
+    private static final int MARGIN = 4;
+    private static final int PADDING = 5;
+    private static final int LINE_HEIGHT = 13;
+
+    private MetricsOverlay() {
+    }
+
+    static void draw(Graphics g, String[] lines) {
+        if (lines.length == 0) return;
+
+        int height = lines.length * LINE_HEIGHT + 2 * PADDING;
+        int top = FlappyBird.BOARD_HEIGHT - MARGIN - height;
+        g.setColor(RenderResources.OVERLAY_BACKGROUND);
+        g.fillRect(MARGIN, top, FlappyBird.BOARD_WIDTH - 2 * MARGIN, height);
+
+        g.setColor(Color.WHITE);
+        g.setFont(RenderResources.OVERLAY_FONT);
+        int baseline = top + PADDING + LINE_HEIGHT - 3;
+        for (String line : lines) {
+            g.drawString(line, MARGIN + PADDING, baseline);
+            baseline += LINE_HEIGHT;
+        }
+    }
+}
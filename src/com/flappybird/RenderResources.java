@@ -0,0 +1,149 @@
+package com.flappybird;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+// Fonts, colours and measured text shared by every paint path.
+// Everything here is immutable and built once, so painting a frame only sets state on the Graphics
+// and never allocates a Font, Color, FontMetrics or String.
+final class RenderResources {
+    // Fonts
+    static final Font SCORE_FONT = new Font("Inter", Font.BOLD, 32);
+    static final Font MESSAGE_FONT = new Font("Inter", Font.BOLD, 30);
+    static final Font SELECT_FONT = new Font("Inter", Font.BOLD, 25);
+    static final Font MENU_BUTTON_FONT = new Font("Inter", Font.BOLD, 21);
+    static final Font GAME_BUTTON_FONT = new Font("Inter", Font.BOLD, 18);
+    static final Font BACK_FONT = new Font("Inter", Font.PLAIN, 30);
+    static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+
+    // Colours
+    static final Color BUTTON = new Color(0x4CAF50);
+    static final Color BUTTON_HOVER = new Color(0xe1d694);
+    static final Color GAME_BUTTON_HOVER = new Color(114, 237, 118);
+    static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 170);
+
+    // Fixed strings, measured once
+    static final MeasuredText PRESS_SPACE = new MeasuredText("Press Spacebar", MESSAGE_FONT);
+    static final MeasuredText PRESS_Q = new MeasuredText("Press Q to Restart", SCORE_FONT);
+    static final MeasuredText GAME_OVER = new MeasuredText("Game Over: ", SCORE_FONT);
+    static final MeasuredText START_GAME = new MeasuredText("START GAME", MENU_BUTTON_FONT);
+    static final MeasuredText LEADERBOARD = new MeasuredText("LEADERBOARD", MENU_BUTTON_FONT);
+    static final MeasuredText LEFT_ARROW = new MeasuredText("<", SELECT_FONT);
+    static final MeasuredText RIGHT_ARROW = new MeasuredText(">", SELECT_FONT);
+    static final MeasuredText GO = new MeasuredText("GO!", SELECT_FONT);
+
+    // The in-game score, drawn from pre-rendered digits
+    static final DigitRenderer SCORE_DIGITS = new DigitRenderer(SCORE_FONT, Color.WHITE);
+
+    private RenderResources() {
+    }
+
+    // Metrics as an unhinted Swing Graphics would report them
+    static FontMetrics metrics(Font font) {
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        try {
+            return g.getFontMetrics(font);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // A string with its font and measurements
+    static final class MeasuredText {
+        final String text;
+        final Font font;
+        final int width;
+        final int ascent;
+
+        MeasuredText(String text, Font font) {
+            FontMetrics fm = metrics(font);
+            this.text = text;
+            this.font = font;
+            this.width = fm.stringWidth(text);
+            this.ascent = fm.getAscent();
+        }
+
+        void draw(Graphics g, int x, int baseline) {
+            g.setFont(font);
+            g.drawString(text, x, baseline);
+        }
+
+        // Centred horizontally within [left, left + areaWidth)
+        void drawCentered(Graphics g, int left, int areaWidth, int baseline) {
+            draw(g, left + (areaWidth - width) / 2, baseline);
+        }
+    }
+
+    // Draws non-negative integers by blitting pre-rendered digit glyphs, no String per frame
+    static final class DigitRenderer {
+        private static final int MAX_DIGITS = 10;
+
+        private final BufferedImage glyphs; // '0'..'9' side by side
+        private final int[] glyphX = new int[10];
+        private final int[] glyphWidth = new int[10];
+        private final int ascent;
+        private final int height;
+        private final int[] digits = new int[MAX_DIGITS]; // Scratch, callers draw on one thread at a time
+
+        DigitRenderer(Font font, Color color) {
+            FontMetrics fm = metrics(font);
+            ascent = fm.getAscent();
+            height = fm.getAscent() + fm.getDescent();
+            int x = 0;
+            for (int d = 0; d < 10; d++) {
+                glyphX[d] = x;
+                glyphWidth[d] = fm.charWidth((char) ('0' + d));
+                x += glyphWidth[d];
+            }
+            glyphs = new BufferedImage(x, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = glyphs.createGraphics();
+            g.setFont(font);
+            g.setColor(color);
+            for (int d = 0; d < 10; d++) {
+                g.drawString(String.valueOf(d), glyphX[d], ascent);
+            }
+            g.dispose();
+        }
+
+        // Width the value takes up when drawn
+        synchronized int width(int value) {
+            int count = split(value);
+            int width = 0;
+            for (int i = 0; i < count; i++) {
+                width += glyphWidth[digits[i]];
+            }
+            return width;
+        }
+
+        // Draw the value with its baseline at y, starting at x
+        synchronized void draw(Graphics g, int value, int x, int baseline) {
+            int count = split(value);
+            int top = baseline - ascent;
+            for (int i = count - 1; i >= 0; i--) {
+                int d = digits[i];
+                int w = glyphWidth[d];
+                g.drawImage(glyphs, x, top, x + w, top + height, glyphX[d], 0, glyphX[d] + w, height, null);
+                x += w;
+            }
+        }
+
+        void drawCentered(Graphics g, int value, int left, int areaWidth, int baseline) {
+            draw(g, value, left + (areaWidth - width(value)) / 2, baseline);
+        }
+
+        // Least significant digit first, returns how many
+        private int split(int value) {
+            int v = Math.max(value, 0);
+            int count = 0;
+            do {
+                digits[count++] = v % 10;
+                v /= 10;
+            } while (v > 0);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.flappybird;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.io.IOException;
+import java.nio.file.Path;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import com.flappybird.sim.GameSimulation;
+import com.flappybird.sim.Replay;
+
+// Draws a recorded run as it plays, at a whole multiple of real time, through the same frame
+// drawing as the game. Silent, and the keyboard does nothing.
+// Usage: ReplayViewer file.fbr [speed, default 1] [bird skin, default 0]
+public class ReplayViewer extends JPanel implements GameLoop.Game {
+    private final GameSimulation simulation;
+    private final Replay.Cursor input;
+    private final int speed; // Simulation ticks per loop tick
+    private final int birdSprite;
+    private final GameLoop gameLoop = new GameLoop(this);
+    private final Object stateLock = new Object(); // Guards the simulation shared by the loop thread and the EDT
+    private volatile double renderAlpha = 0;
+
+    public ReplayViewer(Replay replay, int speed, int birdSkin) {
+        setPreferredSize(new Dimension(FlappyBird.BOARD_WIDTH, FlappyBird.BOARD_HEIGHT));
+        simulation = new GameSimulation(replay.getSeed());
+        if (replay.isStarted()) simulation.start();
+        input = replay.cursor();
+        this.speed = Math.max(speed, 1);
+        birdSprite = SpriteAtlas.bird(birdSkin);
+        gameLoop.start();
+    }
+
+    @Override
+    public void tick() {
+        synchronized (stateLock) {
+            for (int i = 0; i < speed && input.hasNext(); i++) {
+                simulation.step(input.next());
+            }
+            if (!input.hasNext()) {
+                renderAlpha = 1; // Hold the last tick
+                gameLoop.stop();
+            }
+        }
+    }
+
+    @Override
+    public void render(double alpha) {
+        if (gameLoop.isRunning()) renderAlpha = alpha;
+        repaint();
+    }
+
+    @Override
+    public void paintComponent(Graphics g) {
+        synchronized (stateLock) {
+            FlappyBird.drawFrame(g, getGraphicsConfiguration(), simulation, birdSprite, false, renderAlpha);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        gameLoop.stop();
+        super.removeNotify();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayViewer file" + Replay.FILE_EXTENSION + " [speed] [bird skin]");
+            return;
+        }
+        Replay replay = Replay.read(Path.of(args[0]));
+        int speed = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int skin = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        SwingUtilities.invokeLater(() -> {
+            JFrame frame = new JFrame("Replay " + Path.of(args[0]).getFileName());
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setResizable(false);
+            frame.add(new ReplayViewer(replay, speed, skin));
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+        });
+    }
+}
@@ -4,15 +4,12 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
 
 public class SelectFlappy extends JPanel {
     // Fields for assets and state management
     private Image backgroundImg;
     private Image[] birdImages;
-    private String[] birdNames;
+    private RenderResources.MeasuredText[] birdNames;
     private int selectedBirdIndex = 0;
     private int displayedBirdIndex = 0;
 
@@ -20,8 +17,9 @@ public class SelectFlappy extends JPanel {
     private Rectangle goButtonBounds;
     private Rectangle leftButtonBounds;
     private Rectangle rightButtonBounds;
-    @SuppressWarnings("unused")
     private Rectangle displayedBirdBounds;
+    private Rectangle birdNameBounds;
+    private final StaticLayer staticLayer = new StaticLayer(this::drawStaticLayer); // Background and arrows, drawn once
 
     private JFrame frame;
     private boolean hoverGoButton = false;
@@ -47,26 +45,29 @@ public class SelectFlappy extends JPanel {
     }
 
     private void initializeAssets() {
-        backgroundImg = new ImageIcon(getClass().getResource("/resources/flappybirdbg.png")).getImage();
-        birdImages = new Image[] {
-            new ImageIcon(getClass().getResource("/resources/flappyImg/flappybird.png")).getImage(),
-            new ImageIcon(getClass().getResource("/resources/flappyImg/flappybird1.png")).getImage(),
-            new ImageIcon(getClass().getResource("/resources/flappyImg/flappybird2.png")).getImage(),
-            new ImageIcon(getClass().getResource("/resources/flappyImg/flappybird3.png")).getImage(),
-            new ImageIcon(getClass().getResource("/resources/flappyImg/flappybird4.png")).getImage()
-        };
-        birdNames = new String[] {"Flappy Bird", "Flappy Man", "Flappy Bot", "Flappy Red", "Flappy Pinky"};
+        backgroundImg = AssetCache.getInstance().get("/resources/flappybirdbg.png");
+        birdImages = new Image[SpriteAtlas.BIRD_SKINS.length];
+        for (int i = 0; i < birdImages.length; i++) {
+            birdImages[i] = AssetCache.getInstance().get(SpriteAtlas.BIRD_SKINS[i]);
+        }
+        String[] names = {"Flappy Bird", "Flappy Man", "Flappy Bot", "Flappy Red", "Flappy Pinky"};
+        birdNames = new RenderResources.MeasuredText[names.length];
+        for (int i = 0; i < names.length; i++) {
+            birdNames[i] = new RenderResources.MeasuredText(names[i], RenderResources.MESSAGE_FONT);
+        }
     }
 
     private void initializeBounds() {
         goButtonBounds = new Rectangle(130, 500, 100, 45);
         leftButtonBounds = new Rectangle(65, 185, 50, 50);
         rightButtonBounds = new Rectangle(FlappyBird.BOARD_WIDTH - 125, 185, 50, 50);
+        displayedBirdBounds = new Rectangle(135, 185, 80, 60);
+        birdNameBounds = new Rectangle(0, 60, FlappyBird.BOARD_WIDTH, 50); // Band around the name's baseline at y=100
     }
 
     private JLabel createBackButton() {
         JLabel label = new JLabel("<", SwingConstants.CENTER);
-        label.setFont(new Font("Inter", Font.PLAIN, 30));
+        label.setFont(RenderResources.BACK_FONT);
         label.setForeground(Color.WHITE);
 
         label.addMouseListener(new MouseAdapter() {
@@ -111,14 +112,17 @@ public class SelectFlappy extends JPanel {
         addMouseMotionListener(new MouseAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
-                hoverGoButton = goButtonBounds.contains(e.getPoint());
+                boolean overGoButton = goButtonBounds.contains(e.getPoint());
+                if (overGoButton != hoverGoButton) {
+                    hoverGoButton = overGoButton;
+                    repaint(goButtonBounds); // Only the button changes colour
+                }
                 if (hoverGoButton && !hoverGoButtonPlayed) {
                     playSound("/resources/sfx/menuhoverclick.wav");
                     hoverGoButtonPlayed = true;
                 } else if (!hoverGoButton) {
                     hoverGoButtonPlayed = false;
                 }
-                repaint();
             }
         });
     }
@@ -136,7 +140,7 @@ public class SelectFlappy extends JPanel {
     private void startGameWithSelectedBird() {
         SwingUtilities.invokeLater(() -> {
             frame.getContentPane().removeAll();
-            FlappyBird flappyBird = new FlappyBird(birdImages[selectedBirdIndex]);
+            FlappyBird flappyBird = new FlappyBird(selectedBirdIndex);
             frame.add(flappyBird);
             frame.revalidate();
             flappyBird.requestFocus();
@@ -146,34 +150,45 @@ public class SelectFlappy extends JPanel {
     private void previousBird() {
         displayedBirdIndex = (displayedBirdIndex > 0) ? displayedBirdIndex - 1 : birdImages.length - 1;
         selectedBirdIndex = displayedBirdIndex;
-        repaint();
+        repaintSelection();
     }
 
     private void nextBird() {
         displayedBirdIndex = (displayedBirdIndex < birdImages.length - 1) ? displayedBirdIndex + 1 : 0;
         selectedBirdIndex = displayedBirdIndex;
-        repaint();
+        repaintSelection();
+    }
+
+    // Only the bird and its name change when cycling skins
+    private void repaintSelection() {
+        repaint(displayedBirdBounds);
+        repaint(birdNameBounds);
     }
 
     private void playSound(String soundPath) {
-        try (AudioInputStream audioIn = AudioSystem.getAudioInputStream(getClass().getResource(soundPath))) {
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            clip.start();
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error playing sound: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        SoundEngine.getInstance().play(soundPath);
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        staticLayer.paint(g, this);
+
+        // Draw only the parts that fall inside the dirty region
+        if (g.hitClip(displayedBirdBounds.x, displayedBirdBounds.y, displayedBirdBounds.width, displayedBirdBounds.height)) {
+            drawBirdImage(g);
+        }
+        if (g.hitClip(birdNameBounds.x, birdNameBounds.y, birdNameBounds.width, birdNameBounds.height)) {
+            drawBirdName(g);
+        }
+        if (g.hitClip(goButtonBounds.x, goButtonBounds.y, goButtonBounds.width, goButtonBounds.height)) {
+            drawGoButton(g);
+        }
+    }
+
+    private void drawStaticLayer(Graphics2D g) {
         drawBackground(g);
         drawNavigationButtons(g);
-        drawBirdImage(g);
-        drawBirdName(g);
-        drawGoButton(g);
     }
 
     private void drawBackground(Graphics g) {
@@ -181,49 +196,31 @@ public class SelectFlappy extends JPanel {
     }
 
     private void drawNavigationButtons(Graphics g) {
-        Font buttonFont = new Font("Inter", Font.BOLD, 25);
-        g.setFont(buttonFont);
         g.setColor(Color.WHITE);
-        FontMetrics fm = g.getFontMetrics(buttonFont);
 
-        String leftArrow = "<";
-        int leftArrowX = leftButtonBounds.x + (leftButtonBounds.width - fm.stringWidth(leftArrow)) / 2;
-        int leftArrowY = leftButtonBounds.y + (leftButtonBounds.height + fm.getAscent()) / 2;
-        g.drawString(leftArrow, leftArrowX, leftArrowY);
+        RenderResources.MeasuredText left = RenderResources.LEFT_ARROW;
+        left.drawCentered(g, leftButtonBounds.x, leftButtonBounds.width, leftButtonBounds.y + (leftButtonBounds.height + left.ascent) / 2);
 
-        String rightArrow = ">";
-        int rightArrowX = rightButtonBounds.x + (rightButtonBounds.width - fm.stringWidth(rightArrow)) / 2;
-        int rightArrowY = rightButtonBounds.y + (rightButtonBounds.height + fm.getAscent()) / 2;
-        g.drawString(rightArrow, rightArrowX, rightArrowY);
+        RenderResources.MeasuredText right = RenderResources.RIGHT_ARROW;
+        right.drawCentered(g, rightButtonBounds.x, rightButtonBounds.width, rightButtonBounds.y + (rightButtonBounds.height + right.ascent) / 2);
     }
 
     private void drawBirdImage(Graphics g) {
-        int birdX = 135;
-        int birdY = 185;
-        int birdWidth = 80;
-        int birdHeight = 60;
-        displayedBirdBounds = new Rectangle(birdX, birdY, birdWidth, birdHeight);
-        g.drawImage(birdImages[displayedBirdIndex], birdX, birdY, birdWidth, birdHeight, null);
+        Rectangle b = displayedBirdBounds;
+        g.drawImage(birdImages[displayedBirdIndex], b.x, b.y, b.width, b.height, null);
     }
 
     private void drawBirdName(Graphics g) {
-        g.setFont(new Font("Inter", Font.BOLD, 30));
         g.setColor(Color.WHITE);
-        String message = birdNames[selectedBirdIndex];
-        FontMetrics fm = g.getFontMetrics();
-        int textX = (getWidth() - fm.stringWidth(message)) / 2;
-        g.drawString(message, textX, 100);
+        birdNames[selectedBirdIndex].drawCentered(g, 0, getWidth(), 100);
     }
 
     private void drawGoButton(Graphics g) {
-        g.setColor(hoverGoButton ? new Color(0xe1d694) : new Color(0x4CAF50));
+        g.setColor(hoverGoButton ? RenderResources.BUTTON_HOVER : RenderResources.BUTTON);
         g.fillRect(goButtonBounds.x, goButtonBounds.y, goButtonBounds.width, goButtonBounds.height);
 
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Inter", Font.BOLD, 25));
-        String goText = "GO!";
-        int goTextX = goButtonBounds.x + (goButtonBounds.width - g.getFontMetrics().stringWidth(goText)) / 2;
-        int goTextY = goButtonBounds.y + (goButtonBounds.height + g.getFontMetrics().getAscent()) / 2 - 5;
-        g.drawString(goText, goTextX, goTextY);
+        RenderResources.MeasuredText go = RenderResources.GO;
+        go.drawCentered(g, goButtonBounds.x, goButtonBounds.width, goButtonBounds.y + (goButtonBounds.height + go.ascent) / 2 - 5);
     }
 }
@@ -0,0 +1,239 @@
+package com.flappybird;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+
+// Shared sound effect engine.
+// Every effect is decoded once into 16-bit PCM, and playback mixes up to MAX_VOICES effects
+// in software into a single output line, so triggering a sound is a lookup and an array write
+// and the number of native mixer lines never grows.
+public final class SoundEngine {
+    // Effects decoded at startup
+    private static final String[] PRELOADED = {
+        "/resources/sfx/back.wav",
+        "/resources/sfx/chooseflappy.wav",
+        "/resources/sfx/gameover.wav",
+        "/resources/sfx/jump.wav",
+        "/resources/sfx/menuclick.wav",
+        "/resources/sfx/menuhoverclick.wav",
+        "/resources/sfx/passpipe.wav"
+    };
+
+    private static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    static final int CHANNELS = FORMAT.getChannels();
+    private static final int MAX_VOICES = 8;
+    static final int CHUNK_FRAMES = 256; // ~6ms of audio per mix pass
+    private static final short[] MISSING = new short[0]; // Marks effects that failed to decode
+
+    private static final SoundEngine INSTANCE = new SoundEngine();
+
+    private final Map<String, short[]> samples = new ConcurrentHashMap<>();
+
+    // Voice table, guarded by voiceLock
+    private final Object voiceLock = new Object();
+    private final short[][] voiceSamples = new short[MAX_VOICES][];
+    private final int[] voicePosition = new int[MAX_VOICES];
+    private final boolean[] voiceLooping = new boolean[MAX_VOICES];
+    private final long[] voiceStarted = new long[MAX_VOICES];
+    private long triggerCount = 0;
+
+    private volatile SourceDataLine line;
+    private volatile boolean started = false;
+
+    private SoundEngine() {
+    }
+
+    public static SoundEngine getInstance() {
+        return INSTANCE;
+    }
+
+    // Decode all effects and open the output line, call once at startup
+    public synchronized void start() {
+        if (started) return;
+
+        for (String path : PRELOADED) {
+            load(path);
+        }
+
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, CHUNK_FRAMES * 4 * FORMAT.getFrameSize());
+            line.start();
+
+            Thread mixer = new Thread(this::mixLoop, "flappybird-sound-mixer");
+            mixer.setDaemon(true);
+            mixer.start();
+        } catch (Exception e) {
+            System.err.println("Error opening audio output, sound disabled: " + e.getMessage());
+            line = null;
+        }
+        started = true;
+    }
+
+    // Play an effect once
+    public void play(String path) {
+        trigger(path, false);
+    }
+
+    // Play an effect repeatedly until stop() is called
+    public void loop(String path) {
+        trigger(path, true);
+    }
+
+    // Stop every voice currently playing the given effect
+    public void stop(String path) {
+        short[] pcm = samples.get(path);
+        if (pcm == null) return;
+        synchronized (voiceLock) {
+            for (int v = 0; v < MAX_VOICES; v++) {
+                if (voiceSamples[v] == pcm) {
+                    voiceSamples[v] = null;
+                }
+            }
+        }
+    }
+
+    public boolean isPlaying(String path) {
+        short[] pcm = samples.get(path);
+        if (pcm == null) return false;
+        synchronized (voiceLock) {
+            for (int v = 0; v < MAX_VOICES; v++) {
+                if (voiceSamples[v] == pcm) return true;
+            }
+        }
+        return false;
+    }
+
+    private void trigger(String path, boolean looping) {
+        if (!started) {
+            start();
+        }
+        if (line == null) return;
+        startVoice(path, looping);
+    }
+
+    // Put an effect on a voice for the mixer to pick up, whether or not an output line is open
+    void startVoice(String path, boolean looping) {
+        short[] pcm = load(path);
+        if (pcm == MISSING || pcm.length == 0) return;
+
+        synchronized (voiceLock) {
+            // Take a free voice, or steal the one that has been playing the longest
+            int voice = 0;
+            for (int v = 0; v < MAX_VOICES; v++) {
+                if (voiceSamples[v] == null) {
+                    voice = v;
+                    break;
+                }
+                if (voiceStarted[v] < voiceStarted[voice]) {
+                    voice = v;
+                }
+            }
+            voiceSamples[voice] = pcm;
+            voicePosition[voice] = 0;
+            voiceLooping[voice] = looping;
+            voiceStarted[voice] = ++triggerCount;
+            voiceLock.notifyAll();
+        }
+    }
+
+    // Decoded samples for a resource, decoding it on first use if it was not preloaded
+    private short[] load(String path) {
+        return samples.computeIfAbsent(path, SoundEngine::decode);
+    }
+
+    private static short[] decode(String path) {
+        InputStream resource = SoundEngine.class.getResourceAsStream(path);
+        if (resource == null) {
+            System.err.println("Error loading sound: " + path + " not found");
+            return MISSING;
+        }
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(resource));
+             AudioInputStream pcm = source.getFormat().matches(FORMAT) ? source : AudioSystem.getAudioInputStream(FORMAT, source)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = pcm.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+
+            // 16-bit little-endian bytes to interleaved samples
+            byte[] bytes = out.toByteArray();
+            short[] decoded = new short[bytes.length / 2];
+            for (int i = 0; i < decoded.length; i++) {
+                decoded[i] = (short) ((bytes[2 * i] & 0xff) | (bytes[2 * i + 1] << 8));
+            }
+            return decoded;
+        } catch (Exception e) {
+            System.err.println("Error loading sound " + path + ": " + e.getMessage());
+            return MISSING;
+        }
+    }
+
+    // Mixer thread: sums the active voices into small chunks and feeds the output line
+    private void mixLoop() {
+        int[] mix = new int[CHUNK_FRAMES * CHANNELS];
+        byte[] out = new byte[mix.length * 2];
+
+        while (true) {
+            synchronized (voiceLock) {
+                while (!hasActiveVoice()) {
+                    try {
+                        voiceLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            mixChunk(mix, out);
+            line.write(out, 0, out.length); // Blocks until the line has room, pacing the loop
+        }
+    }
+
+    // One mix pass: the next CHUNK_FRAMES of every active voice summed and clipped into out as
+    // 16-bit little-endian PCM. mix is scratch space of CHUNK_FRAMES * CHANNELS samples
+    void mixChunk(int[] mix, byte[] out) {
+        synchronized (voiceLock) {
+            Arrays.fill(mix, 0);
+            for (int v = 0; v < MAX_VOICES; v++) {
+                short[] pcm = voiceSamples[v];
+                if (pcm == null) continue;
+
+                int pos = voicePosition[v];
+                for (int i = 0; i < mix.length; i++) {
+                    if (pos >= pcm.length) {
+                        if (!voiceLooping[v]) {
+                            voiceSamples[v] = null;
+                            break;
+                        }
+                        pos = 0;
+                    }
+                    mix[i] += pcm[pos++];
+                }
+                voicePosition[v] = pos;
+            }
+        }
+
+        // Clip the sum to 16 bits
+        for (int i = 0; i < mix.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            out[2 * i] = (byte) sample;
+            out[2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    private boolean hasActiveVoice() {
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceSamples[v] != null) return true;
+        }
+        return false;
+    }
+}
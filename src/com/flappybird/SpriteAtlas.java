@@ -0,0 +1,160 @@
+package com.flappybird;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+// Every sprite the game board draws, pre-scaled to its on-screen size and packed into one image.
+// The packed image is copied into a VolatileImage so blits stay in video memory; drawing a sprite
+// is an unscaled sub-region copy. The volatile copy is rebuilt as soon as it is asked to draw for
+// another graphics configuration (the window moved screens, the display was reconfigured), and
+// restored or rebuilt whenever the display reports it lost (mode switch, screen lock) or
+// incompatible, falling back to the software copy when acceleration isn't available.
+public final class SpriteAtlas {
+    // Skins shown in SelectFlappy, in order
+    public static final String[] BIRD_SKINS = {
+        "/resources/flappyImg/flappybird.png",
+        "/resources/flappyImg/flappybird1.png",
+        "/resources/flappyImg/flappybird2.png",
+        "/resources/flappyImg/flappybird3.png",
+        "/resources/flappyImg/flappybird4.png"
+    };
+
+    public static final int BACKGROUND = 0;
+    public static final int TOP_PIPE = 1;
+    public static final int BOTTOM_PIPE = 2;
+    private static final int FIRST_BIRD = 3;
+
+    private static final int MAX_RESTORE_ATTEMPTS = 2;
+
+    private static final SpriteAtlas INSTANCE = new SpriteAtlas();
+
+    // Sprite regions: x, y, width, height
+    private final int[] regionX = new int[FIRST_BIRD + BIRD_SKINS.length];
+    private final int[] regionY = new int[regionX.length];
+    private final int[] regionWidth = new int[regionX.length];
+    private final int[] regionHeight = new int[regionX.length];
+
+    private BufferedImage packed; // Software master, built once
+    private VolatileImage accelerated; // Video memory copy, rebuilt when lost
+    private GraphicsConfiguration builtFor; // Configuration the accelerated copy was made for
+
+    private SpriteAtlas() {
+    }
+
+    public static SpriteAtlas getInstance() {
+        return INSTANCE;
+    }
+
+    // Sprite id for a bird skin index
+    public static int bird(int skin) {
+        return FIRST_BIRD + Math.floorMod(skin, BIRD_SKINS.length);
+    }
+
+    // Draw a sprite unscaled with its top-left corner at x, y
+    public synchronized void draw(Graphics g, GraphicsConfiguration config, int sprite, int x, int y) {
+        BufferedImage master = packed();
+        int sx = regionX[sprite], sy = regionY[sprite];
+        int w = regionWidth[sprite], h = regionHeight[sprite];
+        g.drawImage(source(master, config), x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+    }
+
+    // Drop the accelerated copy, the next draw recreates it for the current display
+    private void invalidate() {
+        if (accelerated != null) {
+            accelerated.flush();
+            accelerated = null;
+        }
+    }
+
+    // The accelerated copy if it is usable right now, otherwise the software master
+    private Image source(BufferedImage master, GraphicsConfiguration config) {
+        if (config == null || GraphicsEnvironment.isHeadless()) return master;
+        if (config != builtFor) {
+            invalidate(); // Another screen or a reconfigured one, don't wait for validate() to notice
+        }
+
+        for (int attempt = 0; attempt < MAX_RESTORE_ATTEMPTS; attempt++) {
+            if (accelerated == null) {
+                accelerated = config.createCompatibleVolatileImage(master.getWidth(), master.getHeight(), Transparency.TRANSLUCENT);
+                if (accelerated == null) return master;
+                builtFor = config;
+                upload(master);
+            }
+            switch (accelerated.validate(config)) {
+                case VolatileImage.IMAGE_INCOMPATIBLE:
+                    invalidate(); // Display changed under us, build a new one for it
+                    continue;
+                case VolatileImage.IMAGE_RESTORED:
+                    upload(master); // Surface came back empty
+                    break;
+                default:
+                    break;
+            }
+            if (!accelerated.contentsLost()) return accelerated;
+        }
+        return master;
+    }
+
+    private void upload(BufferedImage master) {
+        Graphics2D g = accelerated.createGraphics();
+        g.setComposite(AlphaComposite.Src); // Keep the transparent gaps transparent
+        g.drawImage(master, 0, 0, null);
+        g.dispose();
+    }
+
+    // Pack the background, both pipes and every skin side by side, scaled to their board sizes
+    private BufferedImage packed() {
+        if (packed != null) return packed;
+
+        AssetCache assets = AssetCache.getInstance();
+        BufferedImage[] sprites = new BufferedImage[regionX.length];
+        sprites[BACKGROUND] = assets.getScaled("/resources/flappybirdbg.png", FlappyBird.BOARD_WIDTH, FlappyBird.BOARD_HEIGHT);
+        sprites[TOP_PIPE] = assets.getScaled("/resources/pipes/toppipe.png", FlappyBird.PIPE_WIDTH, FlappyBird.PIPE_HEIGHT);
+        sprites[BOTTOM_PIPE] = assets.getScaled("/resources/pipes/bottompipe.png", FlappyBird.PIPE_WIDTH, FlappyBird.PIPE_HEIGHT);
+        for (int skin = 0; skin < BIRD_SKINS.length; skin++) {
+            sprites[FIRST_BIRD + skin] = assets.getScaled(BIRD_SKINS[skin], FlappyBird.BIRD_WIDTH, FlappyBird.BIRD_HEIGHT);
+        }
+        regionWidth[BACKGROUND] = FlappyBird.BOARD_WIDTH;
+        regionHeight[BACKGROUND] = FlappyBird.BOARD_HEIGHT;
+        regionWidth[TOP_PIPE] = regionWidth[BOTTOM_PIPE] = FlappyBird.PIPE_WIDTH;
+        regionHeight[TOP_PIPE] = regionHeight[BOTTOM_PIPE] = FlappyBird.PIPE_HEIGHT;
+        for (int sprite = FIRST_BIRD; sprite < regionX.length; sprite++) {
+            regionWidth[sprite] = FlappyBird.BIRD_WIDTH;
+            regionHeight[sprite] = FlappyBird.BIRD_HEIGHT;
+        }
+
+        // Background, then the two pipes, then the birds stacked in one column
+        int width = 0, height = 0;
+        int column = 0;
+        for (int sprite = 0; sprite < regionX.length; sprite++) {
+            if (sprite < FIRST_BIRD) {
+                regionX[sprite] = column;
+                regionY[sprite] = 0;
+                column += regionWidth[sprite];
+            } else {
+                regionX[sprite] = column;
+                regionY[sprite] = (sprite - FIRST_BIRD) * FlappyBird.BIRD_HEIGHT;
+            }
+            width = Math.max(width, regionX[sprite] + regionWidth[sprite]);
+            height = Math.max(height, regionY[sprite] + regionHeight[sprite]);
+        }
+
+        packed = GraphicsEnvironment.isHeadless()
+                ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                        .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D g = packed.createGraphics();
+        for (int sprite = 0; sprite < sprites.length; sprite++) {
+            g.drawImage(sprites[sprite], regionX[sprite], regionY[sprite], null); // Missing art leaves a gap
+        }
+        g.dispose();
+        return packed;
+    }
+}
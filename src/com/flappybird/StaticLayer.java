@@ -0,0 +1,39 @@
+package com.flappybird;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+// The unchanging part of a screen (background, title art), drawn once into an image at the
+// component's size and blitted from then on. Paints that only cover a dirty rectangle copy just
+// that part of it. Rebuilt if the component is resized or moves to another screen.
+final class StaticLayer {
+    private final Consumer<Graphics2D> painter;
+    private BufferedImage image;
+    private GraphicsConfiguration builtFor;
+
+    StaticLayer(Consumer<Graphics2D> painter) {
+        this.painter = painter;
+    }
+
+    void paint(Graphics g, Component component) {
+        int width = component.getWidth(), height = component.getHeight();
+        if (width <= 0 || height <= 0) return;
+
+        GraphicsConfiguration config = component.getGraphicsConfiguration();
+        if (image == null || image.getWidth() != width || image.getHeight() != height || config != builtFor) {
+            image = config != null
+                    ? config.createCompatibleImage(width, height, Transparency.OPAQUE)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            builtFor = config;
+            Graphics2D layer = image.createGraphics();
+            painter.accept(layer);
+            layer.dispose();
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+}
@@ -0,0 +1,456 @@
+package com.flappybird.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded JDBC connection pool.
+// Borrowed connections are proxies: close() hands the physical connection back to the pool,
+// and prepareStatement(sql) returns a statement cached per connection whose close() keeps it open.
+// A cached statement is lent to one caller at a time; preparing the same SQL again while it is
+// still open gets a fresh statement of its own. Statements hand back the proxy from getConnection(),
+// never the physical connection, and any a borrower leaves open are closed when it returns the connection.
+// Idle connections are validated on borrow and evicted after idleTimeoutMillis.
+public class ConnectionPool implements AutoCloseable {
+
+    // Opens physical connections, lets tests plug in an in-memory database
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int maxSize, long idleTimeoutMillis) {
+        this(() -> DriverManager.getConnection(url, user, password), maxSize, idleTimeoutMillis);
+    }
+
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long idleTimeoutMillis) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "flappybird-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(idleTimeoutMillis / 2, 1000);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Borrow a connection, waiting up to timeoutMillis for one to be returned if the pool is exhausted
+    public Connection borrow(long timeoutMillis) throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + timeoutMillis + "ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(factory.open());
+                createdCount.incrementAndGet();
+            }
+            pooled.borrowed = true;
+            return pooled.proxy();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Pop idle connections, most recently used first, until one passes validation
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) return null;
+
+            try {
+                if (pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    return pooled;
+                }
+            } catch (SQLException e) {
+                System.err.println("Error validating pooled connection: " + e.getMessage());
+            }
+            pooled.closePhysical();
+            evictedCount.incrementAndGet();
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        if (!pooled.borrowed) return;
+        pooled.borrowed = false;
+
+        try {
+            pooled.endBorrow();
+            if (closed || pooled.physical.isClosed()) {
+                pooled.closePhysical();
+            } else {
+                // Leave the connection in the state the next borrower expects
+                if (!pooled.physical.getAutoCommit()) {
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+                pooled.lastUsed = System.currentTimeMillis();
+                synchronized (idle) {
+                    idle.addFirst(pooled);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error returning connection to pool: " + e.getMessage());
+            pooled.closePhysical();
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Close connections that have been idle for longer than the timeout, oldest first
+    void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        synchronized (idle) {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                if (pooled.lastUsed > cutoff) break;
+                it.remove();
+                pooled.closePhysical();
+                evictedCount.incrementAndGet();
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        synchronized (idle) {
+            idle.forEach(PooledConnection::closePhysical);
+            idle.clear();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0 : totalWaitNanos.get() / 1e6 / borrows;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1e6;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[active=%d/%d, idle=%d, borrows=%d, avgWait=%.3fms, maxWait=%.3fms, timeouts=%d, created=%d, evicted=%d, stmtCache=%d/%d]",
+                getActiveCount(), maxSize, getIdleCount(), getBorrowCount(), getAverageWaitMillis(), getMaxWaitMillis(),
+                getTimeoutCount(), getCreatedCount(), getEvictedCount(), getStatementCacheHits(),
+                getStatementCacheHits() + getStatementCacheMisses());
+    }
+
+    // A physical connection together with its statement cache
+    private class PooledConnection {
+        final Connection physical;
+        volatile boolean borrowed = false;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        // LRU cache of prepared statements keyed by SQL text. One that is lent out when it falls
+        // off the end stays open until its borrower closes it. Guarded by statements
+        final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > STATEMENT_CACHE_SIZE) {
+                    if (!lent.contains(eldest.getValue())) {
+                        closeQuietly(eldest.getValue());
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+        final Set<Statement> lent = Collections.newSetFromMap(new IdentityHashMap<>()); // Cached, in use this borrow
+        final List<Statement> uncached = new ArrayList<>(); // Open this borrow, closed when it ends
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    new ConnectionHandler(this));
+        }
+
+        PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+            synchronized (statements) {
+                PreparedStatement statement = statements.get(sql);
+                if (statement != null && !statement.isClosed()) {
+                    if (lent.contains(statement)) {
+                        // Still open for an earlier caller, whose parameters and results must survive
+                        statementCacheMisses.incrementAndGet();
+                        return (PreparedStatement) uncached(physical.prepareStatement(sql), PreparedStatement.class, owner);
+                    }
+                    statementCacheHits.incrementAndGet();
+                    statement.clearParameters();
+                } else {
+                    statementCacheMisses.incrementAndGet();
+                    statement = physical.prepareStatement(sql);
+                    statements.put(sql, statement);
+                }
+                lent.add(statement);
+                return cachedStatementProxy(statement, owner);
+            }
+        }
+
+        // Cached statements stay open when the caller closes them, unless they left the cache meanwhile
+        private PreparedStatement cachedStatementProxy(PreparedStatement statement, Connection owner) {
+            boolean[] closed = {false};
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                synchronized (statements) {
+                                    if (!closed[0]) {
+                                        closed[0] = true;
+                                        giveBack(statement);
+                                    }
+                                }
+                                return null;
+                            case "isClosed":
+                                return closed[0] || statement.isClosed();
+                            case "getConnection":
+                                return owner;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                break;
+                        }
+                        if (closed[0]) {
+                            throw new SQLException("Statement is closed");
+                        }
+                        return invokeTarget(statement, method, args);
+                    });
+        }
+
+        // A statement outside the cache, closed with the caller's close() or at the end of the borrow
+        Statement uncached(Statement statement, Class<?> type, Connection owner) {
+            synchronized (statements) {
+                uncached.add(statement);
+            }
+            return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                synchronized (statements) {
+                                    uncached.remove(statement);
+                                }
+                                statement.close();
+                                return null;
+                            case "getConnection":
+                                return owner;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return invokeTarget(statement, method, args);
+                        }
+                    });
+        }
+
+        // Called with statements held
+        private void giveBack(PreparedStatement statement) {
+            lent.remove(statement);
+            if (statements.containsValue(statement)) {
+                try {
+                    statement.clearParameters();
+                } catch (SQLException e) {
+                    closeQuietly(statement);
+                }
+            } else {
+                closeQuietly(statement); // Evicted while it was lent out
+            }
+        }
+
+        // The borrower is done: take back whatever statements it left open
+        void endBorrow() {
+            synchronized (statements) {
+                for (Statement statement : lent.toArray(new Statement[0])) {
+                    giveBack((PreparedStatement) statement);
+                }
+                uncached.forEach(ConnectionPool::closeQuietly);
+                uncached.clear();
+            }
+        }
+
+        void closePhysical() {
+            synchronized (statements) {
+                statements.values().forEach(ConnectionPool::closeQuietly);
+                statements.clear();
+                lent.clear();
+                uncached.clear();
+            }
+            closeQuietly(physical);
+        }
+    }
+
+    // Routes close() on a borrowed connection back to the pool
+    private class ConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed = false;
+
+        ConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            Connection connection = (Connection) proxy;
+            if (method.getName().equals("prepareStatement") && args != null && args.length == 1) {
+                return pooled.prepare((String) args[0], connection);
+            }
+            Object result = invokeTarget(pooled.physical, method, args);
+            if (result instanceof Statement) {
+                // Other statements aren't cached, but must not leak the physical connection either
+                return pooled.uncached((Statement) result, method.getReturnType(), connection);
+            }
+            return result;
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            System.err.println("Error closing database resource: " + e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.flappybird.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
@@ -11,17 +10,52 @@ public class DatabaseConnection {
     private static final String USER = "root";
     private static final String PASSWORD = "";
 
-    // Method to establish a connection to the database
-    public Connection connect() {
+    // Pool settings: a handful of connections is plenty for one kiosk
+    private static final int POOL_SIZE = 4;
+    private static final long IDLE_TIMEOUT_MILLIS = 60_000;
+    private static final long BORROW_TIMEOUT_MILLIS = 5_000;
+
+    private static final DatabaseMetrics METRICS = DatabaseMetrics.getInstance();
+
+    private static ConnectionPool pool;
+
+    // Shared pool, created on first use after the driver has been loaded once
+    public static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            try {
+                // Load the database driver (for MySQL in this case)
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                System.err.println("Error loading database driver: " + e.getMessage());
+            }
+            pool = new ConnectionPool(URL, USER, PASSWORD, POOL_SIZE, IDLE_TIMEOUT_MILLIS);
+        }
+        return pool;
+    }
+
+    // Shared pool if one has been created, without creating it
+    static synchronized ConnectionPool currentPool() {
+        return pool;
+    }
+
+    // Replace the shared pool, e.g. with one backed by an in-memory database
+    public static synchronized void setPool(ConnectionPool newPool) {
+        if (pool != null && pool != newPool) {
+            pool.close();
+        }
+        pool = newPool;
+    }
+
+    // Method to borrow a connection from the pool, close it to give it back; throws if none can be had
+    public Connection connect() throws SQLException {
+        long start = System.nanoTime();
         try {
-            // Load the database driver (for MySQL in this case)
-            Class.forName("com.mysql.cj.jdbc.Driver");
-
-            // Establish and return the connection
-            return DriverManager.getConnection(URL, USER, PASSWORD);
-        } catch (ClassNotFoundException | SQLException e) {
-            System.err.println("Error establishing database connection: " + e.getMessage());
-            return null;
+            Connection conn = getPool().borrow(BORROW_TIMEOUT_MILLIS);
+            METRICS.recordAcquire(System.nanoTime() - start);
+            return conn;
+        } catch (SQLException e) {
+            METRICS.acquireFailed();
+            throw e;
         }
     }
 }
@@ -0,0 +1,308 @@
+package com.flappybird.database;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+import com.flappybird.metrics.LatencyHistogram;
+
+// Load on the leaderboard database, to size the server and pool for a floor of cabinets:
+// latency, rows fetched and failures per repository statement, connection acquire time,
+// and how often the leaderboard refreshes and how many of those coalesce or fail.
+// Published over JMX as com.flappybird:type=DatabaseMetrics, with one more bean per statement
+// under com.flappybird:type=DatabaseMetrics,statement=<name>. With -Dflappybird.dbMetricsLogSeconds=n
+// a daemon thread also logs a summary line every n seconds while there's activity.
+public final class DatabaseMetrics implements DatabaseMetricsMXBean {
+    public static final String OBJECT_NAME = "com.flappybird:type=DatabaseMetrics";
+
+    private static final long LOG_SECONDS = Long.getLong("flappybird.dbMetricsLogSeconds", 0);
+
+    private static final DatabaseMetrics INSTANCE = new DatabaseMetrics();
+
+    private final Map<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+    private final LatencyHistogram acquire = new LatencyHistogram("acquire");
+    private final LatencyHistogram refresh = new LatencyHistogram("refresh");
+    private final AtomicLong acquireFailures = new AtomicLong();
+    private final AtomicLong refreshesCoalesced = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private long loggedQueries = 0, loggedRefreshes = 0; // Written by the log thread only
+
+    private DatabaseMetrics() {
+        if (LOG_SECONDS > 0) {
+            ScheduledExecutorService logger = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "flappybird-db-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            logger.scheduleAtFixedRate(this::logIfActive, LOG_SECONDS, LOG_SECONDS, TimeUnit.SECONDS);
+        }
+        register(this, OBJECT_NAME);
+    }
+
+    public static DatabaseMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // Time one run of a named statement, close it once the statement is done.
+    // A run that isn't marked with rows() or succeeded() before closing counts as failed.
+    public Query time(String statement) {
+        return new Query(statements.computeIfAbsent(statement, StatementMetrics::new));
+    }
+
+    void recordAcquire(long nanos) {
+        acquire.record(nanos);
+    }
+
+    void acquireFailed() {
+        acquireFailures.incrementAndGet();
+    }
+
+    // A refresh that ran queries of its own finished after this long
+    public void recordRefresh(long nanos, boolean failed) {
+        refresh.record(nanos);
+        if (failed) refreshFailures.incrementAndGet();
+    }
+
+    public void refreshCoalesced() {
+        refreshesCoalesced.incrementAndGet();
+    }
+
+    // One timed statement run
+    public static final class Query implements AutoCloseable {
+        private final StatementMetrics metrics;
+        private final long start = System.nanoTime();
+        private int rows = -1; // Still -1 when closed means the statement failed
+
+        private Query(StatementMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        // Mark the run successful with the rows it read or changed
+        public void succeeded(int rowCount) {
+            rows = Math.max(rowCount, 0);
+        }
+
+        @Override
+        public void close() {
+            metrics.record(System.nanoTime() - start, rows);
+        }
+    }
+
+    // Counters for one statement, registered with JMX the first time it runs
+    private static final class StatementMetrics implements StatementMetricsMXBean {
+        private final LatencyHistogram latency;
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+
+        StatementMetrics(String name) {
+            latency = new LatencyHistogram(name);
+            register(this, OBJECT_NAME + ",statement=" + name);
+        }
+
+        void record(long nanos, int rowCount) {
+            latency.record(nanos);
+            if (rowCount < 0) {
+                errors.incrementAndGet();
+            } else {
+                rows.addAndGet(rowCount);
+            }
+        }
+
+        void reset() {
+            latency.reset();
+            errors.set(0);
+            rows.set(0);
+        }
+
+        @Override
+        public long getCalls() {
+            return latency.getCount();
+        }
+
+        @Override
+        public long getErrors() {
+            return errors.get();
+        }
+
+        @Override
+        public double getErrorRate() {
+            long calls = getCalls();
+            return calls == 0 ? 0 : (double) errors.get() / calls;
+        }
+
+        @Override
+        public long getRows() {
+            return rows.get();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return ms(latency.getMeanNanos());
+        }
+
+        @Override
+        public double getP50Millis() {
+            return ms(latency.percentileNanos(50));
+        }
+
+        @Override
+        public double getP99Millis() {
+            return ms(latency.percentileNanos(99));
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return ms(latency.getMaxNanos());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s n=%d p50=%.2fms p99=%.2fms rows=%d err=%d",
+                    latency.getName(), getCalls(), getP50Millis(), getP99Millis(), getRows(), getErrors());
+        }
+    }
+
+    private static void register(Object bean, String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, new ObjectName(name));
+        } catch (Exception e) {
+            System.err.println("Error registering database metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    private static double ms(double nanos) {
+        return nanos / 1e6;
+    }
+
+    // Log a summary, unless nothing touched the database since the last one
+    private void logIfActive() {
+        long queries = getQueryCount();
+        long refreshes = getRefreshCount();
+        if (queries == loggedQueries && refreshes == loggedRefreshes) return;
+        loggedQueries = queries;
+        loggedRefreshes = refreshes;
+        System.out.println("Database metrics: " + getSummary().replace("\n", "; "));
+    }
+
+    @Override
+    public long getQueryCount() {
+        long total = 0;
+        for (StatementMetrics statement : statements.values()) {
+            total += statement.getCalls();
+        }
+        return total;
+    }
+
+    @Override
+    public long getQueryErrors() {
+        long total = 0;
+        for (StatementMetrics statement : statements.values()) {
+            total += statement.getErrors();
+        }
+        return total;
+    }
+
+    @Override
+    public double getQueryErrorRate() {
+        long queries = getQueryCount();
+        return queries == 0 ? 0 : (double) getQueryErrors() / queries;
+    }
+
+    @Override
+    public long getRowsFetched() {
+        long total = 0;
+        for (StatementMetrics statement : statements.values()) {
+            total += statement.getRows();
+        }
+        return total;
+    }
+
+    @Override
+    public double getAcquireMeanMillis() {
+        return ms(acquire.getMeanNanos());
+    }
+
+    @Override
+    public double getAcquireP99Millis() {
+        return ms(acquire.percentileNanos(99));
+    }
+
+    @Override
+    public double getAcquireMaxMillis() {
+        return ms(acquire.getMaxNanos());
+    }
+
+    @Override
+    public long getAcquireFailures() {
+        return acquireFailures.get();
+    }
+
+    @Override
+    public int getPoolSize() {
+        ConnectionPool pool = DatabaseConnection.currentPool();
+        return pool == null ? 0 : pool.getMaxSize();
+    }
+
+    @Override
+    public int getPoolActive() {
+        ConnectionPool pool = DatabaseConnection.currentPool();
+        return pool == null ? 0 : pool.getActiveCount();
+    }
+
+    @Override
+    public int getPoolIdle() {
+        ConnectionPool pool = DatabaseConnection.currentPool();
+        return pool == null ? 0 : pool.getIdleCount();
+    }
+
+    @Override
+    public long getRefreshCount() {
+        return refresh.getCount() + refreshesCoalesced.get();
+    }
+
+    @Override
+    public long getRefreshesCoalesced() {
+        return refreshesCoalesced.get();
+    }
+
+    @Override
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    @Override
+    public double getRefreshP99Millis() {
+        return ms(refresh.percentileNanos(99));
+    }
+
+    // One line of totals, then one line per statement that has run
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "queries=%d, errors=%d, rows=%d, acquire p99=%.2fms max=%.2fms failed=%d, pool %d/%d active, refreshes=%d (coalesced %d, failed %d, p99=%.2fms)",
+                getQueryCount(), getQueryErrors(), getRowsFetched(), getAcquireP99Millis(), getAcquireMaxMillis(),
+                getAcquireFailures(), getPoolActive(), getPoolSize(), getRefreshCount(), getRefreshesCoalesced(),
+                getRefreshFailures(), getRefreshP99Millis()));
+        statements.values().stream()
+                .filter(statement -> statement.getCalls() > 0)
+                .sorted((a, b) -> Long.compare(b.getCalls(), a.getCalls()))
+                .forEach(statement -> summary.append('\n').append(statement));
+        return summary.toString();
+    }
+
+    @Override
+    public void reset() {
+        statements.values().forEach(StatementMetrics::reset);
+        acquire.reset();
+        refresh.reset();
+        acquireFailures.set(0);
+        refreshesCoalesced.set(0);
+        refreshFailures.set(0);
+    }
+}
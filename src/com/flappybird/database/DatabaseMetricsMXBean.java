@@ -0,0 +1,42 @@
+package com.flappybird.database;
+
+// JMX view of DatabaseMetrics, under com.flappybird:type=DatabaseMetrics.
+// Times are in milliseconds and cover the run since the last reset; pool figures are live.
+public interface DatabaseMetricsMXBean {
+    long getQueryCount();
+
+    long getQueryErrors();
+
+    // Failed statements as a fraction of all statements run
+    double getQueryErrorRate();
+
+    long getRowsFetched();
+
+    double getAcquireMeanMillis();
+
+    double getAcquireP99Millis();
+
+    double getAcquireMaxMillis();
+
+    // Borrows that failed, from a pool timeout or the database refusing the connection
+    long getAcquireFailures();
+
+    int getPoolSize();
+
+    int getPoolActive();
+
+    int getPoolIdle();
+
+    long getRefreshCount();
+
+    // Refreshes that joined one already in flight instead of running a query of their own
+    long getRefreshesCoalesced();
+
+    long getRefreshFailures();
+
+    double getRefreshP99Millis();
+
+    String getSummary();
+
+    void reset();
+}
@@ -0,0 +1,10 @@
+package com.flappybird.database;
+
+// One row of the leaderboard as shown in the table
+public record LeaderboardEntry(int id, int rank, String name, int score) {
+
+    // Same row at a different position in the table
+    public LeaderboardEntry withRank(int newRank) {
+        return newRank == rank ? this : new LeaderboardEntry(id, newRank, name, score);
+    }
+}
@@ -0,0 +1,261 @@
+package com.flappybird.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Leaderboard rows in MySQL. Blocking queries, never call these from the Event Dispatch Thread.
+// Ranked reads order by neg_score, id, both ascending, so idx_leaderboard_rank (neg_score, id, name, score)
+// serves them without a filesort even on MariaDB 10.4, which ignores DESC in an index. Keyset conditions
+// lead with a plain range on neg_score instead of an OR across columns; callers pass scores negated.
+// Every statement is timed into DatabaseMetrics under a short name, with the rows it returned.
+public class LeaderboardRepository implements LeaderboardStore {
+    // Keyset page: rows ranked after the last row of the previous page
+    static final String SELECT_PAGE_AFTER =
+            "SELECT id, name, score FROM leaderboard WHERE neg_score >= ? AND (neg_score > ? OR id > ?) ORDER BY neg_score, id LIMIT ?";
+    // Offset page, only used when the previous page's last row is not known (e.g. a scrollbar jump)
+    static final String SELECT_PAGE_AT =
+            "SELECT id, name, score FROM leaderboard ORDER BY neg_score, id LIMIT ? OFFSET ?";
+    // Same page read from the materialized rank table by primary key
+    static final String SELECT_RANK_TABLE_PAGE =
+            "SELECT id, name, score FROM leaderboard_rank WHERE position > ? ORDER BY position LIMIT ?";
+    static final String SELECT_BY_NAME =
+            "SELECT row_rank, id, name, score FROM ("
+                + " SELECT ROW_NUMBER() OVER (ORDER BY neg_score, id) AS row_rank, id, name, score FROM leaderboard) ranked"
+                + " WHERE name LIKE ? ORDER BY row_rank LIMIT ?";
+    static final String COUNT_RANKED_BEFORE =
+            "SELECT COUNT(*) AS ahead FROM leaderboard WHERE neg_score <= ? AND (neg_score < ? OR id < ?)";
+    private static final String SELECT_STATE =
+            "SELECT COUNT(*) AS total, COALESCE(MAX(id), 0) AS max_id FROM leaderboard";
+    private static final String SELECT_SINCE =
+            "SELECT id, name, score FROM leaderboard WHERE id > ? ORDER BY id";
+    private static final String INSERT_SCORE =
+            "INSERT INTO leaderboard (name, score) VALUES (?, ?)";
+    static final String SELECT_SCORE_HISTOGRAM =
+            "SELECT -neg_score AS score, COUNT(*) AS total FROM leaderboard WHERE id <= ? GROUP BY neg_score";
+    private static final String CLEAR_RANK_TABLE = "DELETE FROM leaderboard_rank";
+    private static final String FILL_RANK_TABLE =
+            "INSERT INTO leaderboard_rank (position, id, name, score)"
+                + " SELECT ROW_NUMBER() OVER (ORDER BY neg_score, id), id, name, score FROM leaderboard";
+
+    // Materialized ranks trade an O(n) rebuild per change for O(page) offset reads on huge tables
+    public static final boolean RANK_TABLE_ENABLED = Boolean.getBoolean("flappybird.rankTable");
+
+    // Latest state seen by readState and the state the rank table was built from
+    private static volatile TableState lastState;
+    private static volatile TableState rankTableState;
+
+    private static final DatabaseMetrics METRICS = DatabaseMetrics.getInstance();
+
+    private final DatabaseConnection dbConnection = new DatabaseConnection();
+
+    // Up to limit rows ranked directly after the given row, without a rank
+    @Override
+    public List<LeaderboardEntry> loadPageAfter(LeaderboardEntry last, int limit) throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn; DatabaseMetrics.Query query = METRICS.time("pageAfter");
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PAGE_AFTER)) {
+            stmt.setInt(1, -last.score());
+            stmt.setInt(2, -last.score());
+            stmt.setInt(3, last.id());
+            stmt.setInt(4, limit);
+            return readUnranked(stmt, query);
+        }
+    }
+
+    // Up to limit rows starting at the given position, without a rank
+    @Override
+    public List<LeaderboardEntry> loadPageAt(int offset, int limit) throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        boolean useRankTable = RANK_TABLE_ENABLED && rankTableState != null && rankTableState.equals(lastState);
+        try (conn; DatabaseMetrics.Query query = METRICS.time(useRankTable ? "rankTablePage" : "pageAt");
+             PreparedStatement stmt = conn.prepareStatement(useRankTable ? SELECT_RANK_TABLE_PAGE : SELECT_PAGE_AT)) {
+            if (useRankTable) {
+                stmt.setInt(1, offset);
+                stmt.setInt(2, limit);
+            } else {
+                stmt.setInt(1, limit);
+                stmt.setInt(2, offset);
+            }
+            return readUnranked(stmt, query);
+        }
+    }
+
+    // Rebuild the materialized rank table for the given table state
+    @Override
+    public void refreshRankTable(TableState state) throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn; DatabaseMetrics.Query query = METRICS.time("refreshRankTable")) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement clear = conn.prepareStatement(CLEAR_RANK_TABLE);
+                 PreparedStatement fill = conn.prepareStatement(FILL_RANK_TABLE)) {
+                clear.executeUpdate();
+                int filled = fill.executeUpdate();
+                conn.commit();
+                query.succeeded(filled);
+                rankTableState = state;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Number of rows ranked ahead of the given one, i.e. its zero-based position
+    @Override
+    public int countRankedBefore(LeaderboardEntry entry) throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn; DatabaseMetrics.Query query = METRICS.time("countRankedBefore");
+             PreparedStatement stmt = conn.prepareStatement(COUNT_RANKED_BEFORE)) {
+            stmt.setInt(1, -entry.score());
+            stmt.setInt(2, -entry.score());
+            stmt.setInt(3, entry.id());
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                query.succeeded(1);
+                return rs.getInt("ahead");
+            }
+        }
+    }
+
+    // Up to limit rows whose name contains the given text, ranked against the whole table
+    @Override
+    public List<LeaderboardEntry> filterByName(String filterCriteria, int limit) throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn; DatabaseMetrics.Query query = METRICS.time("filterByName");
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_NAME)) {
+            stmt.setString(1, "%" + filterCriteria + "%");
+            stmt.setInt(2, limit);
+            return readEntries(stmt, query);
+        }
+    }
+
+    // Current table state
+    @Override
+    public TableState readState() throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn; DatabaseMetrics.Query query = METRICS.time("readState");
+             PreparedStatement stmt = conn.prepareStatement(SELECT_STATE); ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            TableState state = new TableState(rs.getInt("total"), rs.getInt("max_id"));
+            lastState = state;
+            query.succeeded(1);
+            return state;
+        }
+    }
+
+    // Rows inserted after the given id, in insertion order and without a rank
+    @Override
+    public List<LeaderboardEntry> loadSince(int afterId) throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn; DatabaseMetrics.Query query = METRICS.time("loadSince");
+             PreparedStatement stmt = conn.prepareStatement(SELECT_SINCE)) {
+            stmt.setInt(1, afterId);
+            return readUnranked(stmt, query);
+        }
+    }
+
+    // Insert a score and return the new row's id, or -1 if it can't be saved
+    @Override
+    public int insertScore(String playerName, int score) throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn; DatabaseMetrics.Query query = METRICS.time("insertScore");
+             PreparedStatement insertStmt = conn.prepareStatement(INSERT_SCORE, Statement.RETURN_GENERATED_KEYS)) {
+            insertStmt.setString(1, playerName);
+            insertStmt.setInt(2, score);
+            query.succeeded(insertStmt.executeUpdate());
+            try (ResultSet keys = insertStmt.getGeneratedKeys()) {
+                return keys.next() ? keys.getInt(1) : -1;
+            }
+        }
+    }
+
+    // Insert rows in one batch and transaction, returns the new ids in order
+    public int[] insertScores(List<LeaderboardEntry> entries) throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn; DatabaseMetrics.Query query = METRICS.time("insertBatch")) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement insertStmt = conn.prepareStatement(INSERT_SCORE, Statement.RETURN_GENERATED_KEYS)) {
+                for (LeaderboardEntry entry : entries) {
+                    insertStmt.setString(1, entry.name());
+                    insertStmt.setInt(2, entry.score());
+                    insertStmt.addBatch();
+                }
+                insertStmt.executeBatch();
+                int[] ids = new int[entries.size()];
+                int count = 0;
+                try (ResultSet keys = insertStmt.getGeneratedKeys()) {
+                    while (keys.next() && count < ids.length) {
+                        ids[count++] = keys.getInt(1);
+                    }
+                }
+                if (count != ids.length) {
+                    throw new SQLException("Expected " + ids.length + " generated ids, got " + count);
+                }
+                conn.commit();
+                query.succeeded(ids.length);
+                return ids;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, Integer> scoreHistogram(int maxId) throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn; DatabaseMetrics.Query query = METRICS.time("scoreHistogram");
+             PreparedStatement stmt = conn.prepareStatement(SELECT_SCORE_HISTOGRAM)) {
+            stmt.setInt(1, maxId);
+            Map<Integer, Integer> counts = new HashMap<>();
+            int rows = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.merge(rs.getInt("score"), rs.getInt("total"), Integer::sum);
+                    rows++;
+                }
+            }
+            query.succeeded(rows);
+            return counts;
+        }
+    }
+
+    private static List<LeaderboardEntry> readEntries(PreparedStatement stmt, DatabaseMetrics.Query query) throws SQLException {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                entries.add(new LeaderboardEntry(rs.getInt("id"), rs.getInt("row_rank"), rs.getString("name"), rs.getInt("score")));
+            }
+        }
+        query.succeeded(entries.size());
+        return entries;
+    }
+
+    private static List<LeaderboardEntry> readUnranked(PreparedStatement stmt, DatabaseMetrics.Query query) throws SQLException {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                entries.add(new LeaderboardEntry(rs.getInt("id"), 0, rs.getString("name"), rs.getInt("score")));
+            }
+        }
+        query.succeeded(entries.size());
+        return entries;
+    }
+}
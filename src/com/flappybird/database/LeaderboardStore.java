@@ -0,0 +1,72 @@
+package com.flappybird.database;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+// Where leaderboard rows are kept. LeaderboardRepository reads and writes MySQL directly;
+// LocalLeaderboardStore keeps the rows on the kiosk and syncs them with MySQL whenever it's reachable.
+// Rows are ranked by score, highest first, then by id; ids only ever grow, so a row count and the
+// highest id tell whether anything changed. Every call blocks, never make one on the Event Dispatch Thread.
+public interface LeaderboardStore {
+
+    // Row count and id high-water mark, cheap enough to poll for changes
+    record TableState(int rowCount, int maxId) {
+    }
+
+    // Up to limit rows ranked directly after the given row, without a rank
+    List<LeaderboardEntry> loadPageAfter(LeaderboardEntry last, int limit) throws SQLException;
+
+    // Up to limit rows starting at the given position, without a rank
+    List<LeaderboardEntry> loadPageAt(int offset, int limit) throws SQLException;
+
+    // Number of rows ranked ahead of the given one, i.e. its zero-based position
+    int countRankedBefore(LeaderboardEntry entry) throws SQLException;
+
+    // Up to limit rows whose name contains the given text, ranked against the whole table
+    List<LeaderboardEntry> filterByName(String filterCriteria, int limit) throws SQLException;
+
+    // Current table state, throws if the store is unreachable
+    TableState readState() throws SQLException;
+
+    // Rows inserted after the given id, in insertion order and without a rank
+    List<LeaderboardEntry> loadSince(int afterId) throws SQLException;
+
+    // Insert a score and return the new row's id, or -1 if it can't be saved
+    int insertScore(String playerName, int score) throws SQLException;
+
+    // Number of rows per score among ids up to maxId
+    Map<Integer, Integer> scoreHistogram(int maxId) throws SQLException;
+
+    // Bring any precomputed ranks up to date with the given state; nothing to do unless the store keeps some
+    default void refreshRankTable(TableState state) throws SQLException {
+    }
+
+    // Rebuild the rank index from a score histogram, consistent up to the current highest id
+    default void loadRankIndex(RankIndex index) throws SQLException {
+        TableState state = readState();
+        index.load(scoreHistogram(state.maxId()), state.maxId());
+    }
+
+    // Count rows inserted since the index's high-water mark, in id order
+    default void syncRankIndex(RankIndex index) throws SQLException {
+        for (LeaderboardEntry entry : loadSince(index.getHighWaterId())) {
+            index.add(entry.id(), entry.score());
+        }
+    }
+
+    // Index names inserted since the index's high-water mark, the first call indexes every row
+    default void syncNameIndex(NameSearchIndex index) throws SQLException {
+        for (LeaderboardEntry entry : loadSince(index.getHighWaterId())) {
+            index.add(entry.id(), entry.name(), entry.score());
+        }
+        index.markLoaded();
+    }
+
+    // Compare the index with the store, returns the scores whose counts differ
+    default List<Integer> checkRankIndex(RankIndex index) throws SQLException {
+        synchronized (index) {
+            return index.findMismatches(scoreHistogram(index.getHighWaterId()));
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package com.flappybird.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Leaderboard kept on the kiosk, so scores are saved and ranked while MySQL is out of reach.
+// Rows live in memory in rank order; an insert finds its place by binary search, so ranking on
+// every insert costs O(log n) plus an array shift. Ties go by MySQL id like the server's ranks,
+// and rows not uploaded yet follow them in local id order. Every change is first appended to a
+// memory-mapped log and forced to disk, and once the log grows past COMPACT_BYTES the whole table
+// is written out as a snapshot already in rank order and the log starts over. Opening reads the
+// snapshot straight into place and replays the log after it; ids make the replay idempotent,
+// so a crash between writing a snapshot and clearing the log loses nothing and duplicates nothing.
+//
+// With a remote repository, a background thread uploads rows scored here to MySQL in batches,
+// whenever it can be reached, and mirrors rows other kiosks added, so the local table stays
+// the whole leaderboard. Local ids are this store's own, MySQL's are kept beside them. Mirroring
+// reads from a high-water mark below which every MySQL id is in the table, ours or mirrored.
+// It only moves across a contiguous run of ids: another kiosk's batch commits in one transaction,
+// so its ids can turn up after higher ones are already visible. An id still missing after
+// GAP_GRACE_NANOS was rolled back or deleted and is stepped over. A kiosk alone on the floor
+// never reads its own rows back.
+// Uploads are at least once: a crash between MySQL's commit and the log noting it sends the batch again.
+// Rows deleted or edited in MySQL are not mirrored.
+public class LocalLeaderboardStore implements LeaderboardStore, AutoCloseable {
+    private static final String LOG_FILE = "leaderboard.log";
+    private static final String SNAPSHOT_FILE = "leaderboard.snapshot";
+    private static final int LOG_MAGIC = 0x46424C47; // "FBLG"
+    private static final int SNAPSHOT_MAGIC = 0x46425353; // "FBSS"
+    private static final int VERSION = 2;
+    private static final int LOG_HEADER_BYTES = 16; // Magic, version, reserved
+    private static final int LOG_GROWTH = 1 << 20; // The mapping grows a mebibyte at a time
+    private static final int COMPACT_BYTES = 4 << 20;
+    private static final int SYNC_BATCH = 200;
+    private static final long SYNC_SECONDS = 10;
+    private static final long GAP_GRACE_NANOS = TimeUnit.MINUTES.toNanos(5); // Far longer than any batch takes to commit
+
+    // Log records: type, fields, then a CRC32 of everything before it. A zero type ends the log
+    private static final byte ENTRY = 1; // id, remote id, score, local flag, name length, UTF-8 name
+    private static final byte SYNCED = 2; // id, remote id: a local row reached MySQL
+    private static final byte HIGH_WATER = 3; // zero, remote id: every MySQL row up to it is in the table
+
+    private static final DatabaseMetrics METRICS = DatabaseMetrics.getInstance();
+
+    // One leaderboard row
+    private static final class Row {
+        final int id;
+        final String name;
+        final int score;
+        final boolean local; // Scored on this kiosk, rather than mirrored from MySQL
+        int remoteId; // 0 until the row is in MySQL
+
+        Row(int id, String name, int score, boolean local, int remoteId) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+            this.local = local;
+            this.remoteId = remoteId;
+        }
+
+        LeaderboardEntry entry(int rank) {
+            return new LeaderboardEntry(id, rank, name, score);
+        }
+
+        long tieOrder() {
+            return LocalLeaderboardStore.tieOrder(remoteId, id);
+        }
+    }
+
+    private final Path directory;
+    private final LeaderboardRepository remote; // Null keeps the store to itself
+    private final FileChannel logChannel;
+    private MappedByteBuffer log;
+    private int logEnd = LOG_HEADER_BYTES; // Where the next record goes
+
+    // Guarded by this
+    private final List<Row> byId = new ArrayList<>(); // Ids run from 1 without gaps, row id is at id - 1
+    private final List<Row> ranked = new ArrayList<>(); // Highest score first, then by tieOrder()
+    private final Map<Integer, Row> byRemoteId = new HashMap<>();
+    private final Deque<Row> pending = new ArrayDeque<>(); // Local rows not yet in MySQL, in id order
+    private int remoteHighWater = 0; // Every MySQL id up to this one is in the table, ours or mirrored
+    private int remoteMaxId = 0; // Highest MySQL id in the table
+    private int gapId = 0; // MySQL id the high-water mark is waiting on, 0 if none
+    private long gapSeenAt;
+
+    private final ScheduledExecutorService syncer;
+
+    private LocalLeaderboardStore(Path directory, LeaderboardRepository remote) throws IOException {
+        this.directory = directory;
+        this.remote = remote;
+        Files.createDirectories(directory);
+        readSnapshot();
+
+        logChannel = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = Math.max(logChannel.size(), LOG_GROWTH);
+            log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            replayLog();
+        } catch (IOException | RuntimeException e) {
+            logChannel.close();
+            throw e;
+        }
+
+        if (remote != null) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "flappybird-store-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::sync, 0, SYNC_SECONDS, TimeUnit.SECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    // Open the store kept in the given directory, creating it if needed. With a remote repository,
+    // rows are synced with MySQL in the background from now on
+    public static LocalLeaderboardStore open(Path directory, LeaderboardRepository remote) throws IOException {
+        return new LocalLeaderboardStore(directory, remote);
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> loadPageAfter(LeaderboardEntry last, int limit) {
+        int from = position(last);
+        if (from < ranked.size() && ranked.get(from).id == last.id()) from++;
+        return slice(ranked, from, limit);
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> loadPageAt(int offset, int limit) {
+        return slice(ranked, offset, limit);
+    }
+
+    @Override
+    public synchronized int countRankedBefore(LeaderboardEntry entry) {
+        return position(entry);
+    }
+
+    // A scan in rank order, case-insensitive like MySQL's default collation
+    @Override
+    public synchronized List<LeaderboardEntry> filterByName(String filterCriteria, int limit) {
+        String query = filterCriteria.toLowerCase(Locale.ROOT);
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (int i = 0; i < ranked.size() && entries.size() < limit; i++) {
+            Row row = ranked.get(i);
+            if (row.name.toLowerCase(Locale.ROOT).contains(query)) {
+                entries.add(row.entry(i + 1));
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public synchronized TableState readState() {
+        return new TableState(byId.size(), byId.size());
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> loadSince(int afterId) {
+        return slice(byId, Math.max(afterId, 0), Integer.MAX_VALUE);
+    }
+
+    // Durable once this returns, ranked at once, and in MySQL after the next successful sync
+    @Override
+    public int insertScore(String playerName, int score) throws SQLException {
+        int id;
+        try (DatabaseMetrics.Query query = METRICS.time("localInsert")) {
+            synchronized (this) {
+                Row row = new Row(byId.size() + 1, playerName, score, true, 0);
+                int start = logEnd;
+                appendEntry(row);
+                log.force(start, logEnd - start);
+                apply(row);
+                id = row.id;
+                compactIfDue(); // Offline nothing else would, and offline is when the log grows
+            }
+            query.succeeded(1);
+        } catch (IOException e) {
+            throw new SQLException("Error writing the local leaderboard log", e);
+        }
+        requestSync();
+        return id;
+    }
+
+    @Override
+    public synchronized Map<Integer, Integer> scoreHistogram(int maxId) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < Math.min(maxId, byId.size()); i++) {
+            counts.merge(byId.get(i).score, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    // Local rows still waiting to be uploaded to MySQL
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    // Upload right away instead of at the next scheduled sync
+    public void requestSync() {
+        if (syncer == null) return;
+        try {
+            syncer.execute(this::sync);
+        } catch (RejectedExecutionException e) {
+            // Closed, nothing left to sync to
+        }
+    }
+
+    // Run a sync on the sync thread and wait for it to finish
+    void syncNow() throws InterruptedException, ExecutionException {
+        syncer.submit(this::sync).get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        synchronized (this) {
+            log.force();
+            logChannel.close();
+        }
+    }
+
+    // Tie order of a row: by MySQL id, then rows not yet uploaded by local id
+    private static long tieOrder(int remoteId, int id) {
+        return (long) (remoteId != 0 ? remoteId : Integer.MAX_VALUE) << 32 | id;
+    }
+
+    // Number of rows ranked strictly ahead of the given entry, placed by its row's MySQL id if it has one
+    private int position(LeaderboardEntry entry) {
+        int id = entry.id();
+        int remoteId = id >= 1 && id <= byId.size() ? byId.get(id - 1).remoteId : 0;
+        return position(entry.score(), tieOrder(remoteId, id));
+    }
+
+    // Number of rows ranked strictly ahead of a row with this score and tie order
+    private int position(int score, long tieOrder) {
+        int lo = 0, hi = ranked.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Row row = ranked.get(mid);
+            if (row.score > score || (row.score == score && row.tieOrder() < tieOrder)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static List<LeaderboardEntry> slice(List<Row> rows, int from, int limit) {
+        int to = (int) Math.min(rows.size(), (long) from + limit);
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            entries.add(rows.get(i).entry(0));
+        }
+        return entries;
+    }
+
+    // Add a new row to every in-memory view
+    private void apply(Row row) {
+        byId.add(row);
+        ranked.add(position(row.score, row.tieOrder()), row);
+        if (row.remoteId != 0) {
+            byRemoteId.put(row.remoteId, row);
+            remoteMaxId = Math.max(remoteMaxId, row.remoteId);
+        }
+        if (row.local && row.remoteId == 0) {
+            pending.addLast(row);
+        }
+    }
+
+    // Upload rows scored here, then mirror rows scored elsewhere. MySQL is only talked to
+    // outside the lock, so inserts and reads never wait on the network
+    private void sync() {
+        try {
+            while (true) {
+                List<Row> batch = new ArrayList<>(SYNC_BATCH);
+                synchronized (this) {
+                    for (Row row : pending) {
+                        if (batch.size() == SYNC_BATCH) break;
+                        batch.add(row);
+                    }
+                }
+                if (batch.isEmpty()) break;
+
+                List<LeaderboardEntry> entries = new ArrayList<>(batch.size());
+                for (Row row : batch) {
+                    entries.add(row.entry(0));
+                }
+                int[] remoteIds = remote.insertScores(entries);
+
+                synchronized (this) {
+                    int start = logEnd;
+                    for (int i = 0; i < batch.size(); i++) {
+                        Row row = batch.get(i);
+                        appendSynced(row.id, remoteIds[i]);
+                        markSynced(row, remoteIds[i]);
+                    }
+                    advanceHighWater();
+                    log.force(start, logEnd - start);
+                }
+            }
+
+            int since;
+            synchronized (this) {
+                since = remoteHighWater;
+            }
+            List<LeaderboardEntry> added = remote.loadSince(since);
+            synchronized (this) {
+                int start = logEnd;
+                for (LeaderboardEntry entry : added) {
+                    if (byRemoteId.containsKey(entry.id())) continue; // One of ours
+                    Row row = new Row(byId.size() + 1, entry.name(), entry.score(), false, entry.id());
+                    appendEntry(row);
+                    apply(row);
+                }
+                advanceHighWater();
+                if (logEnd > start) {
+                    log.force(start, logEnd - start);
+                }
+                compactIfDue();
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Error syncing the local leaderboard with MySQL: " + e.getMessage());
+        }
+    }
+
+    // Move the high-water mark up across the MySQL ids now in the table, noting it in the log.
+    // A missing id holds it back until the id turns up or has stayed missing for GAP_GRACE_NANOS
+    private void advanceHighWater() throws IOException {
+        int mark = remoteHighWater;
+        while (mark < remoteMaxId) {
+            if (!byRemoteId.containsKey(mark + 1)) {
+                if (gapId != mark + 1) {
+                    gapId = mark + 1;
+                    gapSeenAt = System.nanoTime();
+                    break;
+                }
+                if (System.nanoTime() - gapSeenAt < GAP_GRACE_NANOS) break;
+            }
+            mark++;
+        }
+        if (mark > remoteHighWater) {
+            remoteHighWater = mark;
+            appendHighWater(mark);
+        }
+    }
+
+    // Snapshot once the log is past COMPACT_BYTES. The rows are already durable in the log,
+    // so a failure here only leaves it long until the next try
+    private void compactIfDue() {
+        if (logEnd - LOG_HEADER_BYTES <= COMPACT_BYTES) return;
+        try {
+            compact();
+        } catch (IOException e) {
+            System.err.println("Error compacting the local leaderboard log: " + e.getMessage());
+        }
+    }
+
+    // Note a local row's MySQL id, which also moves it among its ties
+    private void markSynced(Row row, int remoteId) {
+        if (row.remoteId != 0) return;
+        ranked.remove(position(row.score, row.tieOrder()));
+        row.remoteId = remoteId;
+        ranked.add(position(row.score, row.tieOrder()), row);
+        byRemoteId.put(remoteId, row);
+        remoteMaxId = Math.max(remoteMaxId, remoteId);
+        pending.remove(row);
+    }
+
+    private void appendEntry(Row row) throws IOException {
+        byte[] name = row.name.getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE) throw new IOException("Name too long for the local leaderboard");
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + 4 + 4 + 1 + 2 + name.length + 4);
+        record.put(ENTRY).putInt(row.id).putInt(row.remoteId).putInt(row.score).put((byte) (row.local ? 1 : 0))
+                .putShort((short) name.length).put(name);
+        append(record);
+    }
+
+    private void appendSynced(int id, int remoteId) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + 4 + 4);
+        record.put(SYNCED).putInt(id).putInt(remoteId);
+        append(record);
+    }
+
+    private void appendHighWater(int remoteId) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + 4 + 4);
+        record.put(HIGH_WATER).putInt(0).putInt(remoteId);
+        append(record);
+    }
+
+    // Write a record with its checksum at the end of the log, growing the mapping if it doesn't fit
+    private void append(ByteBuffer record) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+
+        if (logEnd + record.capacity() + 1 > log.capacity()) {
+            long size = ((long) logEnd + record.capacity() + LOG_GROWTH) / LOG_GROWTH * LOG_GROWTH;
+            if (size > Integer.MAX_VALUE) throw new IOException("Local leaderboard log is full");
+            log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        log.put(logEnd, record.array());
+        logEnd += record.capacity();
+    }
+
+    // Apply the log's records after the snapshot, stopping at the end or at a torn last write
+    private void replayLog() throws IOException {
+        int magic = log.getInt(0);
+        if (magic == 0) {
+            log.putInt(0, LOG_MAGIC).putInt(4, VERSION);
+            log.force();
+            return;
+        }
+        if (magic != LOG_MAGIC || log.getInt(4) != VERSION) {
+            throw new IOException("Unrecognized local leaderboard log " + directory.resolve(LOG_FILE));
+        }
+
+        int position = LOG_HEADER_BYTES;
+        while (position < log.capacity()) {
+            byte type = log.get(position);
+            int length = recordLength(type, position);
+            if (length < 0) break;
+
+            CRC32 crc = new CRC32();
+            crc.update(log.slice(position, length - 4));
+            if ((int) crc.getValue() != log.getInt(position + length - 4)) break;
+
+            int id = log.getInt(position + 1);
+            int remoteId = log.getInt(position + 5);
+            if (type == ENTRY) {
+                if (id > byId.size() + 1) break; // A gap means the rest cannot be trusted
+                if (id == byId.size() + 1) {
+                    byte[] name = new byte[log.getShort(position + 14)];
+                    log.get(position + 16, name);
+                    apply(new Row(id, new String(name, StandardCharsets.UTF_8), log.getInt(position + 9),
+                            log.get(position + 13) != 0, remoteId));
+                }
+                // Ids already in the snapshot were applied before it was written
+            } else if (type == HIGH_WATER) {
+                remoteHighWater = Math.max(remoteHighWater, remoteId);
+            } else if (id >= 1 && id <= byId.size()) {
+                markSynced(byId.get(id - 1), remoteId);
+            }
+            position += length;
+        }
+        logEnd = position;
+
+        // Clear whatever a torn write left behind, so the next record isn't followed by garbage
+        if (logEnd < log.capacity() && log.get(logEnd) != 0) {
+            System.err.println("Discarding a damaged record at byte " + logEnd + " of the local leaderboard log");
+            zero(logEnd, log.capacity());
+        }
+    }
+
+    // Length of the record starting at position, or -1 if there is none or it runs past the mapping
+    private int recordLength(byte type, int position) {
+        int length;
+        if (type == ENTRY) {
+            if (position + 16 > log.capacity()) return -1;
+            length = 16 + log.getShort(position + 14) + 4;
+        } else if (type == SYNCED || type == HIGH_WATER) {
+            length = 13;
+        } else {
+            return -1;
+        }
+        return position + length <= log.capacity() && length > 0 ? length : -1;
+    }
+
+    private void zero(int from, int to) {
+        byte[] zeros = new byte[Math.min(to - from, 64 * 1024)];
+        for (int i = from; i < to; i += zeros.length) {
+            log.put(i, zeros, 0, Math.min(zeros.length, to - i));
+        }
+        log.force(from, to - from);
+    }
+
+    // Write the table out in rank order, then start the log over
+    private void compact() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 64 * 1024));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(ranked.size());
+            out.writeInt(remoteHighWater);
+            for (Row row : ranked) {
+                out.writeInt(row.id);
+                out.writeInt(row.remoteId);
+                out.writeInt(row.score);
+                out.writeBoolean(row.local);
+                out.writeUTF(row.name);
+            }
+            out.flush();
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        zero(LOG_HEADER_BYTES, logEnd);
+        logEnd = LOG_HEADER_BYTES;
+    }
+
+    private void readSnapshot() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) return;
+
+        CRC32 crc = new CRC32();
+        try (InputStream file = Files.newInputStream(snapshot)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(file, 64 * 1024), crc));
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unrecognized local leaderboard snapshot " + snapshot);
+            }
+            int count = in.readInt();
+            if (count < 0) throw new IOException("Damaged local leaderboard snapshot " + snapshot);
+            remoteHighWater = in.readInt();
+
+            // Rows come in rank order; ids are placed by value
+            Row[] rows = new Row[count];
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                int remoteId = in.readInt();
+                int score = in.readInt();
+                boolean local = in.readBoolean();
+                Row row = new Row(id, in.readUTF(), score, local, remoteId);
+                if (row.id < 1 || row.id > count || rows[row.id - 1] != null) {
+                    throw new IOException("Damaged local leaderboard snapshot " + snapshot);
+                }
+                rows[row.id - 1] = row;
+                ranked.add(row);
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) throw new IOException("Damaged local leaderboard snapshot " + snapshot);
+
+            for (Row row : rows) {
+                byId.add(row);
+                if (row.remoteId != 0) byRemoteId.put(row.remoteId, row);
+                if (row.local && row.remoteId == 0) pending.addLast(row);
+                remoteMaxId = Math.max(remoteMaxId, row.remoteId);
+            }
+            // A single pass when the snapshot is already in this order, which older ones tied by local id are not
+            ranked.sort(Comparator.comparingInt((Row row) -> row.score).reversed().thenComparingLong(Row::tieOrder));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.flappybird.database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// In-process substring search over leaderboard names.
+// Every 1-, 2- and 3-character slice of a lower-cased name points at the rows containing it, so a
+// query of up to three characters is a single posting list and a longer one is the shortest of its
+// trigram lists filtered with contains(). Matches carry their rank in the whole leaderboard, not
+// in the filtered result. Rows are appended in id order exactly once, like RankIndex.
+public class NameSearchIndex {
+    private static final int MAX_GRAM = 3;
+
+    private int[] ids = new int[1024];
+    private int[] scores = new int[1024];
+    private String[] names = new String[1024];
+    private String[] folded = new String[1024]; // Lower-cased names for matching
+    private int count = 0;
+
+    private final Map<String, IntList> postings = new HashMap<>(); // Slice to row indexes, ascending
+    private final Map<Integer, IntList> idsByScore = new HashMap<>(); // Ids sharing a score, ascending
+    private final RankIndex ranks = new RankIndex();
+    private boolean loaded = false;
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized int getHighWaterId() {
+        return ranks.getHighWaterId();
+    }
+
+    // Drop everything, the next load starts from scratch
+    public synchronized void clear() {
+        count = 0;
+        postings.clear();
+        idsByScore.clear();
+        ranks.load(Map.of(), 0);
+        loaded = false;
+    }
+
+    // Mark the index as holding the whole table up to its high-water mark
+    public synchronized void markLoaded() {
+        loaded = true;
+    }
+
+    // Index a row, ignoring ids that have already been added
+    public synchronized boolean add(int id, String name, int score) {
+        if (!ranks.add(id, score)) return false;
+
+        if (count == ids.length) {
+            int capacity = count * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            names = Arrays.copyOf(names, capacity);
+            folded = Arrays.copyOf(folded, capacity);
+        }
+        int row = count++;
+        String lower = name.toLowerCase(Locale.ROOT);
+        ids[row] = id;
+        scores[row] = score;
+        names[row] = name;
+        folded[row] = lower;
+
+        for (int length = 1; length <= MAX_GRAM; length++) {
+            for (int start = 0; start + length <= lower.length(); start++) {
+                IntList rows = postings.computeIfAbsent(lower.substring(start, start + length), key -> new IntList());
+                if (rows.size == 0 || rows.last() != row) {
+                    rows.add(row); // A slice repeated within one name is posted once
+                }
+            }
+        }
+        idsByScore.computeIfAbsent(score, key -> new IntList()).add(id);
+        return true;
+    }
+
+    // Rows whose name contains the query, best ranked first, at most limit of them
+    public synchronized List<LeaderboardEntry> search(String query, int limit) {
+        String lower = query.trim().toLowerCase(Locale.ROOT);
+        if (lower.isEmpty()) return List.of();
+
+        IntList candidates;
+        if (lower.length() <= MAX_GRAM) {
+            candidates = postings.get(lower);
+        } else {
+            candidates = null;
+            for (int start = 0; start + MAX_GRAM <= lower.length(); start++) {
+                IntList rows = postings.get(lower.substring(start, start + MAX_GRAM));
+                if (rows == null) return List.of();
+                if (candidates == null || rows.size < candidates.size) {
+                    candidates = rows;
+                }
+            }
+        }
+        if (candidates == null) return List.of();
+
+        // Sort keys put higher scores first and earlier ids first on ties, like the table
+        long[] keys = new long[candidates.size];
+        int matches = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            int row = candidates.values[i];
+            if (lower.length() <= MAX_GRAM || folded[row].contains(lower)) {
+                keys[matches++] = ((long) (Integer.MAX_VALUE - scores[row]) << 32) | row;
+            }
+        }
+        Arrays.sort(keys, 0, matches);
+
+        List<LeaderboardEntry> results = new ArrayList<>(Math.min(matches, limit));
+        for (int i = 0; i < matches && i < limit; i++) {
+            int row = (int) keys[i];
+            results.add(new LeaderboardEntry(ids[row], rankOf(ids[row], scores[row]), names[row], scores[row]));
+        }
+        return results;
+    }
+
+    // 1-based position of a row in the whole leaderboard
+    public synchronized int rankOf(int id, int score) {
+        IntList ties = idsByScore.get(score);
+        int tiesBefore = ties == null ? 0 : Math.max(ties.indexOf(id), 0);
+        return ranks.countAbove(score) + tiesBefore + 1;
+    }
+
+    // Growable list of ascending ints
+    private static final class IntList {
+        int[] values = new int[4];
+        int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int last() {
+            return values[size - 1];
+        }
+
+        int indexOf(int value) {
+            return Arrays.binarySearch(values, 0, size, value);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.flappybird.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runs EXPLAIN on the leaderboard's hot queries and flags plans that scan the whole table
+// or sort it, which means an index from SchemaMigrator is missing or not being used.
+// Enabled at startup with -Dflappybird.explainQueries=true. Reads MySQL/MariaDB EXPLAIN rows, and
+// H2's plan text so the same check runs in tests against an in-memory database in MySQL mode.
+public class QueryPlanCheck {
+
+    // Query name to the SQL and sample parameters it is explained with
+    private static final Map<String, Object[]> QUERIES = new LinkedHashMap<>();
+    static {
+        QUERIES.put("page after", new Object[]{LeaderboardRepository.SELECT_PAGE_AFTER, -100, -100, 1, 50});
+        QUERIES.put("rank count", new Object[]{LeaderboardRepository.COUNT_RANKED_BEFORE, -100, -100, 1});
+        QUERIES.put("score histogram", new Object[]{LeaderboardRepository.SELECT_SCORE_HISTOGRAM, Integer.MAX_VALUE});
+        QUERIES.put("rank table page", new Object[]{LeaderboardRepository.SELECT_RANK_TABLE_PAGE, 0, 50});
+    }
+
+    private final DatabaseConnection dbConnection = new DatabaseConnection();
+
+    // Plan rows per query, each rendered as "column=value, ..."
+    public Map<String, List<String>> explainAll() throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        Map<String, List<String>> plans = new LinkedHashMap<>();
+        try (conn) {
+            for (Map.Entry<String, Object[]> query : QUERIES.entrySet()) {
+                Object[] spec = query.getValue();
+                try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + spec[0])) {
+                    for (int i = 1; i < spec.length; i++) {
+                        stmt.setObject(i, spec[i]);
+                    }
+                    plans.put(query.getKey(), readPlan(stmt));
+                }
+            }
+        }
+        return plans;
+    }
+
+    // Human-readable problems, empty when every query is served by an index
+    public List<String> findProblems() throws SQLException {
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, List<String>> plan : explainAll().entrySet()) {
+            for (String row : plan.getValue()) {
+                String lower = row.toLowerCase();
+                if (lower.contains("type=all") || lower.contains(".tablescan")) {
+                    problems.add(plan.getKey() + ": full table scan (" + row + ")");
+                }
+                // H2 marks an ORDER BY its index already satisfies as "index sorted"
+                if (lower.contains("using filesort") || (lower.contains("order by") && !lower.contains("index sorted"))) {
+                    problems.add(plan.getKey() + ": filesort (" + row + ")");
+                }
+            }
+        }
+        return problems;
+    }
+
+    private static List<String> readPlan(PreparedStatement stmt) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            ResultSetMetaData meta = rs.getMetaData();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int c = 1; c <= meta.getColumnCount(); c++) {
+                    if (c > 1) row.append(", ");
+                    row.append(meta.getColumnLabel(c).toLowerCase()).append('=').append(rs.getString(c));
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+}
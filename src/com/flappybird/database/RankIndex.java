@@ -0,0 +1,168 @@
+package com.flappybird.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// In-memory rank index over leaderboard scores.
+// A Fenwick tree counts scores per integer bucket, so rank, percentile and "score of the k-th
+// place" are O(log maxScore) instead of a window function over the whole table. The index
+// follows the table through an id high-water mark: rows are added in id order exactly once.
+// Ties are ordered by id like the table, so a row's rank counts the equal scores added before it.
+public class RankIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Where a score stands on the leaderboard
+    public record Standing(int rank, int total, double topPercent) {
+    }
+
+    private long[] tree = new long[INITIAL_CAPACITY + 1]; // 1-based Fenwick tree, bucket b at index b + 1
+    private int capacity = INITIAL_CAPACITY;
+    private int total = 0;
+    private int highWaterId = 0;
+    private boolean loaded = false;
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized int size() {
+        return total;
+    }
+
+    // Highest leaderboard.id counted so far
+    public synchronized int getHighWaterId() {
+        return highWaterId;
+    }
+
+    // Replace the contents with a score histogram read up to the given id
+    public synchronized void load(Map<Integer, Integer> countsByScore, int maxId) {
+        int highest = 0;
+        for (int score : countsByScore.keySet()) {
+            highest = Math.max(highest, bucket(score));
+        }
+        capacity = Integer.highestOneBit(Math.max(highest, INITIAL_CAPACITY - 1)) << 1;
+        tree = new long[capacity + 1];
+        total = 0;
+        countsByScore.forEach((score, count) -> update(bucket(score), count));
+        highWaterId = maxId;
+        loaded = true;
+    }
+
+    // Count a row, ignoring ids the index has already seen
+    public synchronized boolean add(int id, int score) {
+        if (id <= highWaterId) return false;
+        highWaterId = id;
+        update(bucket(score), 1);
+        return true;
+    }
+
+    // Number of scores strictly higher than the given one
+    public synchronized int countAbove(int score) {
+        return total - prefix(bucket(score));
+    }
+
+    // Number of scores equal to or higher than the given one
+    public synchronized int countAtOrAbove(int score) {
+        int b = bucket(score);
+        return total - (b == 0 ? 0 : prefix(b - 1));
+    }
+
+    // Rank of the most recently added row with this score (it sorts last among its ties)
+    public synchronized Standing standingOfNewest(int score) {
+        return standingAt(countAtOrAbove(score));
+    }
+
+    // Standing of whichever row holds the given 1-based rank, out of every row counted
+    public synchronized Standing standingAt(int rank) {
+        double topPercent = total == 0 ? 0 : 100.0 * rank / total;
+        return new Standing(rank, total, topPercent);
+    }
+
+    // Percentage of scores strictly below the given one
+    public synchronized double percentile(int score) {
+        int b = bucket(score);
+        return total == 0 ? 0 : 100.0 * (b == 0 ? 0 : prefix(b - 1)) / total;
+    }
+
+    // Score held by the given 1-based rank, or -1 if there are fewer rows.
+    // scoreAtRank(k) is also the cutoff for a top-k query: WHERE score >= ? ORDER BY score DESC LIMIT k
+    public synchronized int scoreAtRank(int rank) {
+        if (rank < 1 || rank > total) return -1;
+
+        // k-th highest is the (total - k + 1)-th lowest, found by descending the tree
+        long target = total - rank + 1;
+        int index = 0;
+        for (int step = Integer.highestOneBit(capacity); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= capacity && tree[next] < target) {
+                index = next;
+                target -= tree[next];
+            }
+        }
+        return index; // Fenwick index + 1 is the bucket, minus the 1-based offset
+    }
+
+    // Scores whose count differs from the database histogram, empty when the index is consistent
+    public synchronized List<Integer> findMismatches(Map<Integer, Integer> countsByScore) {
+        List<Integer> mismatches = new ArrayList<>();
+        int counted = 0;
+        for (Map.Entry<Integer, Integer> entry : countsByScore.entrySet()) {
+            counted += entry.getValue();
+            if (countAt(entry.getKey()) != entry.getValue()) {
+                mismatches.add(entry.getKey());
+            }
+        }
+        if (counted != total && mismatches.isEmpty()) {
+            mismatches.add(-1); // Index holds scores the database does not
+        }
+        return mismatches;
+    }
+
+    private int countAt(int score) {
+        int b = bucket(score);
+        return prefix(b) - (b == 0 ? 0 : prefix(b - 1));
+    }
+
+    private static int bucket(int score) {
+        return Math.max(score, 0);
+    }
+
+    // Count of scores in buckets 0..b
+    private int prefix(int b) {
+        long sum = 0;
+        for (int i = Math.min(b, capacity - 1) + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return (int) sum;
+    }
+
+    private void update(int b, int delta) {
+        if (b >= capacity) {
+            grow(b);
+        }
+        for (int i = b + 1; i <= capacity; i += i & -i) {
+            tree[i] += delta;
+        }
+        total += delta;
+    }
+
+    // Double the bucket range, rebuilding the tree from the per-bucket counts
+    private void grow(int b) {
+        long[] counts = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            counts[i] = countAt(i);
+        }
+        int newCapacity = capacity;
+        while (newCapacity <= b) {
+            newCapacity <<= 1;
+        }
+        capacity = newCapacity;
+        tree = new long[capacity + 1];
+        for (int i = 0; i < counts.length; i++) {
+            for (int j = i + 1; j <= capacity && counts[i] != 0; j += j & -j) {
+                tree[j] += counts[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.flappybird.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Versioned schema migrations, applied in order on startup.
+// The applied version is kept in schema_version; each migration runs once and is recorded
+// straight after, so a kiosk that was offline for several releases catches up in one pass.
+// leaderboard.sql is version 1, never edit a migration that has shipped, add a new one instead.
+public class SchemaMigrator {
+
+    // One schema change
+    public record Migration(int version, String description, List<String> statements) {
+    }
+
+    public static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Baseline leaderboard table", List.of(
+            "CREATE TABLE IF NOT EXISTS leaderboard ("
+                + " id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,"
+                + " name VARCHAR(50) NOT NULL,"
+                + " score DOUBLE NOT NULL)"
+        )),
+        // Serves ORDER BY score DESC, id paging, rank counts and the score histogram.
+        // InnoDB appends the primary key to secondary indexes; name is included so pages are covered too
+        new Migration(2, "Score index for ranked reads", List.of(
+            "CREATE INDEX idx_leaderboard_score ON leaderboard (score DESC, id, name)"
+        )),
+        // Serves exact and prefix name lookups, covering score through the index
+        new Migration(3, "Name index for player lookups", List.of(
+            "CREATE INDEX idx_leaderboard_name ON leaderboard (name, score)"
+        )),
+        // Precomputed positions, only refreshed when -Dflappybird.rankTable=true
+        new Migration(4, "Materialized rank table", List.of(
+            "CREATE TABLE IF NOT EXISTS leaderboard_rank ("
+                + " position INT NOT NULL PRIMARY KEY,"
+                + " id INT NOT NULL,"
+                + " name VARCHAR(50) NOT NULL,"
+                + " score DOUBLE NOT NULL)"
+        )),
+        // MariaDB before 10.8 (XAMPP ships 10.4) parses DESC in an index and ignores it, so migration 2's
+        // index could not serve ORDER BY score DESC, id without a filesort. Ranking by a virtual negated
+        // score makes that order ascending in both columns, which any version's index serves
+        new Migration(5, "Negated score index for ranked reads", List.of(
+            "ALTER TABLE leaderboard ADD COLUMN neg_score DOUBLE GENERATED ALWAYS AS (-score)",
+            "CREATE INDEX idx_leaderboard_rank ON leaderboard (neg_score, id, name, score)",
+            "DROP INDEX idx_leaderboard_score ON leaderboard"
+        ))
+    );
+
+    private static final String CREATE_VERSION_TABLE =
+            "CREATE TABLE IF NOT EXISTS schema_version ("
+                + " version INT NOT NULL PRIMARY KEY,"
+                + " description VARCHAR(200) NOT NULL,"
+                + " applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+    private static final String SELECT_VERSION = "SELECT COALESCE(MAX(version), 0) AS version FROM schema_version";
+    private static final String INSERT_VERSION = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+
+    private final DatabaseConnection dbConnection = new DatabaseConnection();
+
+    // Apply every pending migration, returns the schema version afterwards
+    public int migrate() throws SQLException {
+        Connection conn = dbConnection.connect();
+
+        try (conn) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_VERSION_TABLE);
+            }
+
+            int current = currentVersion(conn);
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() <= current) continue;
+
+                try {
+                    apply(conn, migration);
+                } catch (SQLException e) {
+                    // Another kiosk may have applied it at the same time
+                    int now = currentVersion(conn);
+                    if (now < migration.version()) {
+                        throw new SQLException("Migration " + migration.version() + " (" + migration.description() + ") failed", e);
+                    }
+                }
+                current = migration.version();
+                System.err.println("Applied schema migration " + migration.version() + ": " + migration.description());
+            }
+            return current;
+        }
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_VERSION); ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getInt("version");
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        // MySQL commits DDL implicitly, so record the version as soon as the statements succeed
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements()) {
+                stmt.execute(sql);
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_VERSION)) {
+            stmt.setInt(1, migration.version());
+            stmt.setString(2, migration.description());
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.flappybird.database;
+
+// JMX view of one repository statement, under com.flappybird:type=DatabaseMetrics,statement=<name>
+public interface StatementMetricsMXBean {
+    long getCalls();
+
+    long getErrors();
+
+    double getErrorRate();
+
+    long getRows();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
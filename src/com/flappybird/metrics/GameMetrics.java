@@ -0,0 +1,329 @@
+package com.flappybird.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+// Where the time goes while the game runs, to tell stutter caused by our own work apart from GC,
+// audio or database threads: histograms of tick and paint durations, frame intervals and their
+// jitter, and how long repaints wait on the EDT, plus dropped frame and tick counts.
+// Recording never allocates and is cheap enough to stay on all the time. A daemon thread samples
+// the allocation rate and GC time once a second, formats the overlay text while the overlay is
+// shown, and with -Dflappybird.metricsFile=path appends a JSON line snapshot every 10 seconds.
+// The same numbers are published over JMX as com.flappybird:type=GameMetrics.
+public final class GameMetrics implements GameMetricsMXBean {
+    public static final String OBJECT_NAME = "com.flappybird:type=GameMetrics";
+
+    private static final String EXPORT_FILE = System.getProperty("flappybird.metricsFile");
+    private static final long EXPORT_SECONDS = 10;
+    private static final long OVERLAY_REFRESH_MILLIS = 250;
+
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    private final LatencyHistogram tick = new LatencyHistogram("tick");
+    private final LatencyHistogram paint = new LatencyHistogram("paint");
+    private final LatencyHistogram frameInterval = new LatencyHistogram("frame interval");
+    private final LatencyHistogram frameJitter = new LatencyHistogram("frame jitter"); // Distance from the target interval
+    private final LatencyHistogram edtLag = new LatencyHistogram("edt lag"); // repaint() to paintComponent
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong droppedTicks = new AtomicLong();
+    private final AtomicLong repaintRequestedAt = new AtomicLong(); // 0 while no repaint is pending
+    private volatile long targetFrameNanos = 1_000_000_000L / 60;
+    private long lastFrame = 0; // Guarded by this
+
+    // Rates over the last sampling second, written by the metrics thread only
+    private volatile double allocationBytesPerSecond = -1; // -1 if the JVM can't count allocations
+    private volatile double gcMillisPerSecond = 0;
+    private long lastSampleNanos = 0, lastAllocatedBytes = 0, lastGcMillis = 0;
+
+    private volatile boolean overlayVisible = Boolean.getBoolean("flappybird.overlay");
+    private volatile String[] overlayLines = new String[0];
+
+    private GameMetrics() {
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "flappybird-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sampleRates, 0, 1, TimeUnit.SECONDS);
+        sampler.scheduleAtFixedRate(this::refreshOverlay, 0, OVERLAY_REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+        if (EXPORT_FILE != null) {
+            sampler.scheduleAtFixedRate(() -> {
+                try {
+                    exportTo(EXPORT_FILE);
+                } catch (IOException e) {
+                    System.err.println("Error exporting metrics to " + EXPORT_FILE + ": " + e.getMessage());
+                }
+            }, EXPORT_SECONDS, EXPORT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (Exception e) {
+            System.err.println("Error registering metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    public static GameMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // Interval frames are expected at, from the game loop's render rate
+    public void setTargetFrameNanos(long nanos) {
+        targetFrameNanos = Math.max(nanos, 1);
+    }
+
+    public void recordTick(long nanos) {
+        tick.record(nanos);
+    }
+
+    public void recordPaint(long nanos) {
+        paint.record(nanos);
+    }
+
+    // Simulation time the loop gave up on after a stall instead of catching up
+    public void ticksDropped(long ticks) {
+        if (ticks > 0) droppedTicks.addAndGet(ticks);
+    }
+
+    // A frame reached the screen now
+    public synchronized void framePresented() {
+        long now = System.nanoTime();
+        if (lastFrame != 0) {
+            long interval = now - lastFrame;
+            long target = targetFrameNanos;
+            frameInterval.record(interval);
+            frameJitter.record(Math.abs(interval - target));
+            // Every whole refresh slot the frame overran is a frame the player never saw
+            long missed = (interval + target / 2) / target - 1;
+            if (missed > 0) droppedFrames.addAndGet(missed);
+        }
+        lastFrame = now;
+    }
+
+    // Call just before repaint(); a repaint already pending keeps its earlier time, as Swing coalesces them
+    public void repaintRequested() {
+        repaintRequestedAt.compareAndSet(0, System.nanoTime());
+    }
+
+    // Call at the start of paintComponent, records how long the request sat in the EDT queue
+    public void paintStarted() {
+        long requested = repaintRequestedAt.getAndSet(0);
+        if (requested != 0) {
+            edtLag.record(System.nanoTime() - requested);
+        }
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    public void setOverlayVisible(boolean visible) {
+        overlayVisible = visible;
+        if (visible) refreshOverlay();
+    }
+
+    // Latest overlay text, one entry per line; empty until the overlay has been shown
+    public String[] getOverlayLines() {
+        return overlayLines;
+    }
+
+    // Clear everything recorded, e.g. at the start of a new run
+    @Override
+    public void reset() {
+        tick.reset();
+        paint.reset();
+        frameInterval.reset();
+        frameJitter.reset();
+        edtLag.reset();
+        droppedFrames.set(0);
+        droppedTicks.set(0);
+        repaintRequestedAt.set(0);
+        synchronized (this) {
+            lastFrame = 0;
+        }
+    }
+
+    private void sampleRates() {
+        long now = System.nanoTime();
+        long allocated = totalAllocatedBytes();
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcMillis += Math.max(collector.getCollectionTime(), 0);
+        }
+
+        if (lastSampleNanos != 0) {
+            double seconds = (now - lastSampleNanos) / 1e9;
+            // Threads that ended take their counts with them, so the sum can go backwards
+            allocationBytesPerSecond = allocated < 0 ? -1 : Math.max(allocated - lastAllocatedBytes, 0) / seconds;
+            gcMillisPerSecond = (gcMillis - lastGcMillis) / seconds;
+        }
+        lastSampleNanos = now;
+        lastAllocatedBytes = allocated;
+        lastGcMillis = gcMillis;
+    }
+
+    // Bytes allocated so far by every live thread, or -1 if the JVM doesn't track it
+    private static long totalAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot
+                && hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+            long total = 0;
+            for (long bytes : hotspot.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+                if (bytes > 0) total += bytes;
+            }
+            return total;
+        }
+        return -1;
+    }
+
+    private void refreshOverlay() {
+        if (!overlayVisible) return;
+        overlayLines = new String[] {
+            String.format("tick   avg %5.2f  p99 %5.2f  max %6.2f ms", ms(tick.getMeanNanos()), ms(tick.percentileNanos(99)), ms(tick.getMaxNanos())),
+            String.format("paint  avg %5.2f  p99 %5.2f  max %6.2f ms", ms(paint.getMeanNanos()), ms(paint.percentileNanos(99)), ms(paint.getMaxNanos())),
+            String.format("frame  p50 %5.2f  p99 %5.2f  jit %6.2f ms", ms(frameInterval.percentileNanos(50)), ms(frameInterval.percentileNanos(99)), ms(frameJitter.percentileNanos(99))),
+            String.format("edt    p99 %5.2f ms  dropped %d fr %d tk", ms(edtLag.percentileNanos(99)), droppedFrames.get(), droppedTicks.get()),
+            String.format("alloc  %s  gc %5.1f ms/s", allocationText(), gcMillisPerSecond),
+        };
+    }
+
+    private String allocationText() {
+        double rate = allocationBytesPerSecond;
+        return rate < 0 ? "n/a" : String.format("%6.2f MB/s", rate / 1e6);
+    }
+
+    private static double ms(double nanos) {
+        return nanos / 1e6;
+    }
+
+    @Override
+    public void exportTo(String path) throws IOException {
+        StringBuilder line = new StringBuilder(1024);
+        line.append("{\"time\":\"").append(Instant.now()).append('"');
+        appendHistogram(line, "tick", tick);
+        appendHistogram(line, "paint", paint);
+        appendHistogram(line, "frameInterval", frameInterval);
+        appendHistogram(line, "frameJitter", frameJitter);
+        appendHistogram(line, "edtLag", edtLag);
+        line.append(",\"droppedFrames\":").append(droppedFrames.get());
+        line.append(",\"droppedTicks\":").append(droppedTicks.get());
+        line.append(",\"allocationBytesPerSecond\":").append(Math.round(allocationBytesPerSecond));
+        line.append(",\"gcMillisPerSecond\":").append(String.format(Locale.ROOT, "%.2f", gcMillisPerSecond));
+        line.append("}\n");
+
+        try (Writer out = Files.newBufferedWriter(Path.of(path), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(line.toString());
+        }
+    }
+
+    // Summary plus the raw non-empty buckets as [upper edge ns, count] pairs, so percentiles can be recomputed offline
+    private static void appendHistogram(StringBuilder line, String name, LatencyHistogram histogram) {
+        line.append(",\"").append(name).append("\":{")
+                .append("\"count\":").append(histogram.getCount())
+                .append(",\"meanNanos\":").append(Math.round(histogram.getMeanNanos()))
+                .append(",\"p50Nanos\":").append(histogram.percentileNanos(50))
+                .append(",\"p99Nanos\":").append(histogram.percentileNanos(99))
+                .append(",\"maxNanos\":").append(histogram.getMaxNanos())
+                .append(",\"buckets\":[");
+        long[][] buckets = histogram.nonEmptyBuckets();
+        for (int i = 0; i < buckets.length; i++) {
+            if (i > 0) line.append(',');
+            line.append('[').append(buckets[i][0]).append(',').append(buckets[i][1]).append(']');
+        }
+        line.append("]}");
+    }
+
+    @Override
+    public double getTickMeanMillis() {
+        return ms(tick.getMeanNanos());
+    }
+
+    @Override
+    public double getTickP99Millis() {
+        return ms(tick.percentileNanos(99));
+    }
+
+    @Override
+    public double getTickMaxMillis() {
+        return ms(tick.getMaxNanos());
+    }
+
+    @Override
+    public double getPaintMeanMillis() {
+        return ms(paint.getMeanNanos());
+    }
+
+    @Override
+    public double getPaintP99Millis() {
+        return ms(paint.percentileNanos(99));
+    }
+
+    @Override
+    public double getPaintMaxMillis() {
+        return ms(paint.getMaxNanos());
+    }
+
+    @Override
+    public double getFrameIntervalP50Millis() {
+        return ms(frameInterval.percentileNanos(50));
+    }
+
+    @Override
+    public double getFrameIntervalP99Millis() {
+        return ms(frameInterval.percentileNanos(99));
+    }
+
+    @Override
+    public double getFrameJitterP99Millis() {
+        return ms(frameJitter.percentileNanos(99));
+    }
+
+    @Override
+    public double getEdtLagP99Millis() {
+        return ms(edtLag.percentileNanos(99));
+    }
+
+    @Override
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    @Override
+    public long getDroppedTicks() {
+        return droppedTicks.get();
+    }
+
+    @Override
+    public double getAllocationMegabytesPerSecond() {
+        double rate = allocationBytesPerSecond;
+        return rate < 0 ? -1 : rate / 1e6;
+    }
+
+    @Override
+    public double getGcMillisPerSecond() {
+        return gcMillisPerSecond;
+    }
+
+    @Override
+    public String getSummary() {
+        return tick + "\n" + paint + "\n" + frameInterval + "\n" + frameJitter + "\n" + edtLag
+                + String.format("%ndropped frames=%d, dropped ticks=%d, allocation=%s, gc=%.1f ms/s",
+                        droppedFrames.get(), droppedTicks.get(), allocationText().trim(), gcMillisPerSecond);
+    }
+}
@@ -0,0 +1,44 @@
+package com.flappybird.metrics;
+
+import java.io.IOException;
+
+// JMX view of GameMetrics, under com.flappybird:type=GameMetrics (e.g. in JConsole or VisualVM).
+// Times are in milliseconds; everything but the rates covers the run since the last reset.
+public interface GameMetricsMXBean {
+    double getTickMeanMillis();
+
+    double getTickP99Millis();
+
+    double getTickMaxMillis();
+
+    double getPaintMeanMillis();
+
+    double getPaintP99Millis();
+
+    double getPaintMaxMillis();
+
+    double getFrameIntervalP50Millis();
+
+    double getFrameIntervalP99Millis();
+
+    double getFrameJitterP99Millis();
+
+    double getEdtLagP99Millis();
+
+    long getDroppedFrames();
+
+    long getDroppedTicks();
+
+    // Bytes allocated by all threads per second, over the last sampling second
+    double getAllocationMegabytesPerSecond();
+
+    // Time spent in garbage collection per second, over the last sampling second
+    double getGcMillisPerSecond();
+
+    String getSummary();
+
+    void reset();
+
+    // Append a snapshot, as one JSON line, to the given file
+    void exportTo(String path) throws IOException;
+}
@@ -0,0 +1,112 @@
+package com.flappybird.metrics;
+
+import java.util.Arrays;
+
+// Histogram of durations in nanoseconds with log-linear buckets, in the style of HdrHistogram:
+// exact below 64ns, then 32 buckets per power of two, so any reported value is within about 3%
+// of the true one from nanoseconds up to minutes in a fixed table of 1153 counters.
+// Recording is a few shifts and an array increment and never allocates, so it can run on every
+// tick and frame; methods are synchronized because the game loop and the EDT both record.
+public final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 64; // Values below this get a bucket each
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int MAX_MAGNITUDE = 40; // 2^40ns, about 18 minutes; slower values are clamped
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_MAGNITUDE - 6) * HALF + 1; // Plus one overflow bucket
+
+    private final String name;
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[bucket(nanos)]++;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public synchronized double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    // Smallest recorded value that at least the given percentage of samples do not exceed,
+    // reported as the top of its bucket but never above the true maximum
+    public synchronized long percentileNanos(double percentile) {
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= target) {
+                return Math.min(upperEdge(b), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    // Copy of the bucket counts paired with their upper edges, for exporters
+    public synchronized long[][] nonEmptyBuckets() {
+        int used = 0;
+        for (long c : counts) {
+            if (c != 0) used++;
+        }
+        long[][] buckets = new long[used][];
+        int i = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            if (counts[b] != 0) {
+                buckets[i++] = new long[] {upperEdge(b), counts[b]};
+            }
+        }
+        return buckets;
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        if (magnitude >= MAX_MAGNITUDE) return BUCKETS - 1;
+        int shift = magnitude - 5; // Keeps the top six bits, 32..63
+        int top = (int) (nanos >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF + (top - HALF);
+    }
+
+    // Largest value that falls in the bucket
+    static long upperEdge(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int k = bucket - SUB_BUCKETS;
+        int shift = k / HALF + 1;
+        long top = k % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: n=%d, avg=%.3fms, p50=%.3fms, p90=%.3fms, p99=%.3fms, p99.9=%.3fms, max=%.3fms",
+                name, count, getMeanNanos() / 1e6, percentileNanos(50) / 1e6, percentileNanos(90) / 1e6,
+                percentileNanos(99) / 1e6, percentileNanos(99.9) / 1e6, maxNanos / 1e6);
+    }
+}
@@ -0,0 +1,118 @@
+package com.flappybird.sim;
+
+import java.util.Arrays;
+
+// Aggregate of many finished games: score distribution, death causes and ticks simulated.
+// Each worker fills its own instance and instances are merged, so recording needs no locking.
+public final class BatchResult {
+    private long[] scoreCounts = new long[64]; // Games per whole-point score
+    private final long[] deathCounts = new long[GameSimulation.DeathCause.values().length];
+    private long games = 0;
+    private long survived = 0; // Still alive at the tick limit
+    private long ticks = 0;
+    private long scoreSum = 0;
+    private int maxScore = 0;
+    private long elapsedNanos = 0;
+
+    void record(GameSimulation simulation) {
+        int score = (int) simulation.getScore();
+        if (score >= scoreCounts.length) {
+            scoreCounts = Arrays.copyOf(scoreCounts, Integer.highestOneBit(score) << 1);
+        }
+        scoreCounts[score]++;
+        games++;
+        ticks += simulation.getTick();
+        scoreSum += score;
+        maxScore = Math.max(maxScore, score);
+
+        GameSimulation.DeathCause cause = simulation.getDeathCause();
+        if (cause == null) {
+            survived++;
+        } else {
+            deathCounts[cause.ordinal()]++;
+        }
+    }
+
+    void merge(BatchResult other) {
+        if (other.scoreCounts.length > scoreCounts.length) {
+            scoreCounts = Arrays.copyOf(scoreCounts, other.scoreCounts.length);
+        }
+        for (int i = 0; i < other.scoreCounts.length; i++) {
+            scoreCounts[i] += other.scoreCounts[i];
+        }
+        for (int i = 0; i < deathCounts.length; i++) {
+            deathCounts[i] += other.deathCounts[i];
+        }
+        games += other.games;
+        survived += other.survived;
+        ticks += other.ticks;
+        scoreSum += other.scoreSum;
+        maxScore = Math.max(maxScore, other.maxScore);
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getSurvived() {
+        return survived;
+    }
+
+    public long getDeaths(GameSimulation.DeathCause cause) {
+        return deathCounts[cause.ordinal()];
+    }
+
+    // Games that ended with exactly this many points
+    public long getScoreCount(int score) {
+        return score >= 0 && score < scoreCounts.length ? scoreCounts[score] : 0;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public double getMeanScore() {
+        return games == 0 ? 0 : (double) scoreSum / games;
+    }
+
+    // Lowest score reached by at least the given percentage of games, counting from the bottom
+    public int scorePercentile(double percentile) {
+        if (games == 0) return 0;
+        long target = (long) Math.ceil(games * percentile / 100.0);
+        long seen = 0;
+        for (int score = 0; score < scoreCounts.length; score++) {
+            seen += scoreCounts[score];
+            if (seen >= target) return score;
+        }
+        return maxScore;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1e6;
+    }
+
+    public double getTicksPerSecond() {
+        return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "games=%d, mean=%.2f, p50=%d, p90=%d, p99=%d, max=%d, ticks=%d in %.0fms (%.1fM ticks/s)%n",
+                games, getMeanScore(), scorePercentile(50), scorePercentile(90), scorePercentile(99), maxScore,
+                ticks, getElapsedMillis(), getTicksPerSecond() / 1e6));
+        for (GameSimulation.DeathCause cause : GameSimulation.DeathCause.values()) {
+            summary.append(String.format("  %-12s %6.2f%%%n", cause, games == 0 ? 0 : 100.0 * getDeaths(cause) / games));
+        }
+        summary.append(String.format("  %-12s %6.2f%%%n", "SURVIVED", games == 0 ? 0 : 100.0 * survived / games));
+        return summary.toString();
+    }
+}
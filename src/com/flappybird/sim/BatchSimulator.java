@@ -0,0 +1,92 @@
+package com.flappybird.sim;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+
+// Plays many seeded games in parallel and aggregates the results.
+// Game i uses seed firstSeed + i for both the pipes and its input policy, so a batch is
+// reproducible whatever the thread count; policies draw from their own stream of that seed. Work is split over a fork/join pool in chunks of
+// consecutive seeds; each chunk reuses one GameSimulation and its own BatchResult, and results
+// are merged on the way back up, so the workers share nothing while they run.
+public final class BatchSimulator {
+    private static final int GAMES_PER_TASK = 64;
+
+    private final ForkJoinPool pool;
+    private final Difficulty difficulty;
+    private final LongFunction<InputPolicy> policyForSeed;
+    private final long maxTicksPerGame;
+
+    public BatchSimulator(int threads, Difficulty difficulty, LongFunction<InputPolicy> policyForSeed, long maxTicksPerGame) {
+        this.pool = new ForkJoinPool(threads);
+        this.difficulty = difficulty;
+        this.policyForSeed = policyForSeed;
+        this.maxTicksPerGame = maxTicksPerGame;
+    }
+
+    // Play games seeded firstSeed .. firstSeed + games - 1
+    public BatchResult run(long firstSeed, int games) {
+        long start = System.nanoTime();
+        BatchResult result = pool.invoke(new Chunk(firstSeed, games));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // Play one game to the end or the tick limit
+    static void play(GameSimulation simulation, InputPolicy policy, long maxTicks) {
+        while (!simulation.isGameOver() && simulation.getTick() < maxTicks) {
+            simulation.step(policy.flap(simulation));
+        }
+    }
+
+    private class Chunk extends RecursiveTask<BatchResult> {
+        private final long firstSeed;
+        private final int games;
+
+        Chunk(long firstSeed, int games) {
+            this.firstSeed = firstSeed;
+            this.games = games;
+        }
+
+        @Override
+        protected BatchResult compute() {
+            if (games > GAMES_PER_TASK) {
+                int half = games / 2;
+                Chunk right = new Chunk(firstSeed + half, games - half);
+                right.fork();
+                BatchResult left = new Chunk(firstSeed, half).compute();
+                left.merge(right.join());
+                return left;
+            }
+
+            BatchResult result = new BatchResult();
+            GameSimulation simulation = new GameSimulation(firstSeed, difficulty);
+            for (int i = 0; i < games; i++) {
+                long seed = firstSeed + i;
+                simulation.reset(seed);
+                simulation.start();
+                play(simulation, policyForSeed.apply(seed), maxTicksPerGame);
+                result.record(simulation);
+            }
+            return result;
+        }
+    }
+
+    // Usage: BatchSimulator [games] [threads]
+    // Plays the gap-following bot on the shipped curve and prints the score distribution and death causes.
+    // BatchBenchmark in the benchmarks module measures how throughput scales with threads
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        LongFunction<InputPolicy> bot = seed -> InputPolicy.gapFollower(40, 6, seed);
+        long maxTicks = 60L * 60 * GameSimulation.TICKS_PER_SECOND; // An hour of play
+
+        BatchSimulator simulator = new BatchSimulator(threads, Difficulty.DEFAULT, bot, maxTicks);
+        System.out.print(simulator.run(0, games));
+        simulator.shutdown();
+    }
+}
@@ -0,0 +1,56 @@
+package com.flappybird.sim;
+
+// Difficulty curve knobs, so batch runs can compare variants of the shipped game.
+// Pipe pairs spawn every basePipeDelayMillis until delayDropFromScore, then come
+// delayDropPerPointMillis sooner per point down to minPipeDelayMillis. The opening between a pair
+// starts at baseOpening and shrinks by openingShrink every openingShrinkEveryPoints, down to minOpening.
+public record Difficulty(
+        int basePipeDelayMillis,
+        int minPipeDelayMillis,
+        int delayDropFromScore,
+        int delayDropPerPointMillis,
+        int baseOpening,
+        int minOpening,
+        int openingShrink,
+        int openingShrinkEveryPoints) {
+
+    // The curve the game ships with
+    public static final Difficulty DEFAULT = new Difficulty(1500, 800, 10, 10, GameSimulation.BOARD_HEIGHT / 4, 150, 10, 20);
+
+    public Difficulty {
+        if (minPipeDelayMillis <= 0 || basePipeDelayMillis < minPipeDelayMillis) {
+            throw new IllegalArgumentException("Pipe delays must be positive with base >= min");
+        }
+        if (minPipeDelayMillis < GameSimulation.MIN_PIPE_DELAY_MILLIS) {
+            throw new IllegalArgumentException("minPipeDelayMillis below " + GameSimulation.MIN_PIPE_DELAY_MILLIS
+                    + " puts more pipes on screen than the pipe ring holds");
+        }
+        if (minOpening <= 0 || baseOpening < minOpening) {
+            throw new IllegalArgumentException("Openings must be positive with base >= min");
+        }
+        if (openingShrinkEveryPoints <= 0) {
+            throw new IllegalArgumentException("openingShrinkEveryPoints must be positive");
+        }
+    }
+
+    // Milliseconds between pipe pairs at the given score
+    public int pipeDelayMillis(double score) {
+        if (score < delayDropFromScore) return basePipeDelayMillis;
+        return Math.max(basePipeDelayMillis - (int) (score * delayDropPerPointMillis), minPipeDelayMillis);
+    }
+
+    // Vertical gap between a top and bottom pipe at the given score
+    public int opening(double score) {
+        return Math.max(baseOpening - (int) (score / openingShrinkEveryPoints) * openingShrink, minOpening);
+    }
+
+    public Difficulty withPipeDelay(int basePipeDelayMillis, int minPipeDelayMillis, int delayDropPerPointMillis) {
+        return new Difficulty(basePipeDelayMillis, minPipeDelayMillis, delayDropFromScore, delayDropPerPointMillis,
+                baseOpening, minOpening, openingShrink, openingShrinkEveryPoints);
+    }
+
+    public Difficulty withOpening(int baseOpening, int minOpening, int openingShrink, int openingShrinkEveryPoints) {
+        return new Difficulty(basePipeDelayMillis, minPipeDelayMillis, delayDropFromScore, delayDropPerPointMillis,
+                baseOpening, minOpening, openingShrink, openingShrinkEveryPoints);
+    }
+}
@@ -0,0 +1,273 @@
+package com.flappybird.sim;
+
+// The game rules, with no Swing or AWT dependency.
+// Each step() advances exactly one fixed tick given whether flap is held; the bird flaps on the
+// tick the input goes from released to held. Pipe gaps come from the simulation's own seeded
+// generator and spawn intervals are counted in ticks, so a seed plus the input sequence always
+// replays the same run, on any thread, at any speed. step() allocates nothing.
+public final class GameSimulation {
+    public static final int TICKS_PER_SECOND = 60;
+
+    // Board, bird and pipe geometry in pixels
+    public static final int BOARD_WIDTH = 360;
+    public static final int BOARD_HEIGHT = 640;
+    public static final int BIRD_WIDTH = 34;
+    public static final int BIRD_HEIGHT = 24;
+    public static final int BIRD_X = BOARD_WIDTH / 8;
+    public static final int PIPE_WIDTH = 64;
+    public static final int PIPE_HEIGHT = 512;
+
+    // Motion per tick
+    private static final int GRAVITY = 1;
+    private static final int PIPE_VELOCITY_X = -4;
+    private static final int FLAP_VELOCITY_Y = -9;
+
+    // A pipe is still on screen this many ticks after it spawns, and reclaimed on the next
+    static final int PIPE_LIFETIME_TICKS = (BOARD_WIDTH + PIPE_WIDTH) / -PIPE_VELOCITY_X;
+    // Pairs must spawn at least this far apart for every pair on screen to fit in the PipeRing
+    static final int MIN_SPAWN_INTERVAL_TICKS = PIPE_LIFETIME_TICKS / (PipeRing.CAPACITY / 2) + 1;
+    public static final int MIN_PIPE_DELAY_MILLIS = (MIN_SPAWN_INTERVAL_TICKS - 1) * 1000 / TICKS_PER_SECOND + 1;
+
+    // Events reported by step(), or-ed together
+    public static final int STARTED = 1;
+    public static final int FLAPPED = 2;
+    public static final int PASSED_PIPE = 4;
+    public static final int DIED = 8;
+
+    // What ended a run
+    public enum DeathCause {
+        TOP_PIPE,
+        BOTTOM_PIPE,
+        FELL // Dropped below the board
+    }
+
+    private final Difficulty difficulty;
+    private final XorShiftRandom random;
+    private final PipeRing pipes = new PipeRing();
+
+    private long seed;
+    private long tick;
+    private boolean started, gameOver, flapHeld;
+    private int birdY, prevBirdY, velocityY;
+    private double score; // 0.5 per pipe, so 1 per top and bottom pair
+    private int pipeDelayMillis;
+    private int ticksSinceSpawn;
+    private DeathCause deathCause;
+
+    public GameSimulation(long seed) {
+        this(seed, Difficulty.DEFAULT);
+    }
+
+    public GameSimulation(long seed, Difficulty difficulty) {
+        this.difficulty = difficulty;
+        random = new XorShiftRandom(seed);
+        reset(seed);
+    }
+
+    // Back to the start screen with a fresh board
+    public void reset(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+        pipes.clear();
+        tick = 0;
+        started = false;
+        gameOver = false;
+        flapHeld = false;
+        birdY = prevBirdY = BOARD_HEIGHT / 2;
+        velocityY = 0;
+        score = 0;
+        pipeDelayMillis = difficulty.basePipeDelayMillis();
+        ticksSinceSpawn = 0;
+        deathCause = null;
+    }
+
+    // Skip the start screen, as a restart does
+    public void start() {
+        started = true;
+    }
+
+    // Advance one tick with the flap input held or released, returns the events that happened
+    public int step(boolean flap) {
+        int events = 0;
+        boolean pressed = flap && !flapHeld;
+        flapHeld = flap;
+        if (pressed) {
+            if (!started) {
+                started = true;
+                events |= STARTED;
+            } else if (!gameOver) {
+                velocityY = FLAP_VELOCITY_Y;
+                events |= FLAPPED;
+            }
+        }
+
+        tick++;
+        if (!started || gameOver) return events;
+
+        // Generate pipes at intervals measured in ticks
+        if (++ticksSinceSpawn >= spawnIntervalTicks()) {
+            ticksSinceSpawn = 0;
+            spawnPipes();
+            pipeDelayMillis = difficulty.pipeDelayMillis(score);
+        }
+        return events | move();
+    }
+
+    private int move() {
+        int events = 0;
+        prevBirdY = birdY;
+        velocityY += GRAVITY;
+        birdY = Math.max(birdY + velocityY, 0);
+
+        for (int i = 0; i < pipes.size(); i++) {
+            int p = pipes.slot(i);
+            pipes.prevX[p] = pipes.x[p];
+            pipes.x[p] += PIPE_VELOCITY_X;
+        }
+
+        // Pipes are ordered by x, so only those from the cursor on can still touch the bird,
+        // and the first one wholly right of the bird column ends the search
+        for (int i = pipes.cursor; i < pipes.size(); i++) {
+            int p = pipes.slot(i);
+            if (pipes.x[p] >= BIRD_X + BIRD_WIDTH) break;
+            if (collides(p)) {
+                if (!gameOver) {
+                    deathCause = pipes.top[p] ? DeathCause.TOP_PIPE : DeathCause.BOTTOM_PIPE;
+                }
+                gameOver = true;
+                velocityY = 5;
+            }
+        }
+
+        // If bird passes a pipe, increment score
+        while (pipes.cursor < pipes.size() && BIRD_X > pipes.x[pipes.slot(pipes.cursor)] + PIPE_WIDTH) {
+            score += 0.5;
+            pipes.passed[pipes.slot(pipes.cursor++)] = true;
+            events |= PASSED_PIPE;
+        }
+
+        // Recycle the slots of pipes that scrolled off the left edge
+        pipes.reclaimOffscreen(PIPE_WIDTH);
+
+        // If bird falls below screen, game over
+        if (birdY > BOARD_HEIGHT) {
+            if (!gameOver) {
+                deathCause = DeathCause.FELL;
+            }
+            gameOver = true;
+            velocityY = 0;
+        }
+
+        // Handle gravity after game over
+        if (gameOver) {
+            velocityY += GRAVITY;
+            birdY += velocityY;
+            events |= DIED;
+        }
+        return events;
+    }
+
+    // Swept test over the whole tick, so a fast bird cannot clip a pipe corner between two ticks unseen
+    private boolean collides(int p) {
+        // Most ticks the bird is nowhere near the pipe's span at all
+        if (Math.max(prevBirdY, birdY) + BIRD_HEIGHT <= pipes.y[p]
+                || Math.min(prevBirdY, birdY) >= pipes.y[p] + PIPE_HEIGHT) {
+            return false;
+        }
+        return sweepOverlaps(
+                sweepEntry(pipes.prevX[p], pipes.x[p], BIRD_X - PIPE_WIDTH, BIRD_X + BIRD_WIDTH),
+                sweepExit(pipes.prevX[p], pipes.x[p], BIRD_X - PIPE_WIDTH, BIRD_X + BIRD_WIDTH),
+                sweepEntry(prevBirdY, birdY, pipes.y[p] - BIRD_HEIGHT, pipes.y[p] + PIPE_HEIGHT),
+                sweepExit(prevBirdY, birdY, pipes.y[p] - BIRD_HEIGHT, pipes.y[p] + PIPE_HEIGHT));
+    }
+
+    // Bird and pipe overlap when, at the same instant, the pipe's x lies strictly between
+    // BIRD_X - PIPE_WIDTH and BIRD_X + BIRD_WIDTH and the bird's y strictly between
+    // pipeY - BIRD_HEIGHT and pipeY + PIPE_HEIGHT. Both move linearly from their previous to their
+    // current position over the tick, so each condition holds for an open window of time; these
+    // give the window's ends as fractions of the tick. The end of the tick, t = 1, is the plain
+    // overlap test, so the swept test catches everything it did and more.
+
+    // Start of the window in which a value moving from `from` to `to` lies strictly between lo and hi
+    static double sweepEntry(int from, int to, int lo, int hi) {
+        if (from == to) return from > lo && from < hi ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        return Math.min((double) (lo - from) / (to - from), (double) (hi - from) / (to - from));
+    }
+
+    // End of the same window
+    static double sweepExit(int from, int to, int lo, int hi) {
+        if (from == to) return from > lo && from < hi ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        return Math.max((double) (lo - from) / (to - from), (double) (hi - from) / (to - from));
+    }
+
+    // Whether two windows share an instant within the tick
+    static boolean sweepOverlaps(double entryA, double exitA, double entryB, double exitB) {
+        double entry = Math.max(entryA, entryB);
+        double exit = Math.min(exitA, exitB);
+        return entry < exit && entry < 1 && exit > 0;
+    }
+
+    void spawnPipes() {
+        int openingSpace = difficulty.opening(score);
+
+        // Random vertical position for the top pipe, both start at the right edge
+        int topY = (int) (-PIPE_HEIGHT / 4 - random.nextDouble() * (PIPE_HEIGHT / 2));
+        pipes.add(BOARD_WIDTH, topY, true);
+        pipes.add(BOARD_WIDTH, topY + PIPE_HEIGHT + openingSpace, false);
+    }
+
+    private int spawnIntervalTicks() {
+        return (pipeDelayMillis * TICKS_PER_SECOND + 999) / 1000;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getBirdY() {
+        return birdY;
+    }
+
+    // Bird height at the previous tick, for interpolation
+    public int getPrevBirdY() {
+        return prevBirdY;
+    }
+
+    public int getVelocityY() {
+        return velocityY;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    // Null until the run ends
+    public DeathCause getDeathCause() {
+        return deathCause;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public int getPipeDelayMillis() {
+        return pipeDelayMillis;
+    }
+
+    // Live pipes, read-only outside the simulation
+    public PipeRing getPipes() {
+        return pipes;
+    }
+}
@@ -0,0 +1,58 @@
+package com.flappybird.sim;
+
+// Decides, once per tick, whether flap is held. Stands in for the player in batch runs.
+// A policy instance drives a single game, so it may keep state between ticks.
+@FunctionalInterface
+public interface InputPolicy {
+    boolean flap(GameSimulation simulation);
+
+    // Never flaps; the bird drops out of the board on every seed
+    static InputPolicy idle() {
+        return simulation -> false;
+    }
+
+    // Taps at random, each tick starting a press with the given chance
+    static InputPolicy randomTaps(double tapChance, long seed) {
+        XorShiftRandom random = policyRandom(seed);
+        return simulation -> random.nextDouble() < tapChance;
+    }
+
+    // Aims for the middle of the next opening, missing it by up to `error` pixels.
+    // A rough stand-in for a competent player, with skill set by the error and reaction time
+    static InputPolicy gapFollower(int error, int reactionTicks, long seed) {
+        XorShiftRandom random = policyRandom(seed);
+        int[] aim = {0};
+        long[] nextDecision = {0};
+        return simulation -> {
+            if (simulation.getTick() >= nextDecision[0]) {
+                nextDecision[0] = simulation.getTick() + reactionTicks;
+                aim[0] = (int) ((random.nextDouble() * 2 - 1) * error);
+            }
+            int target = nextOpeningCentre(simulation) + aim[0];
+            // Flap when below the target and falling, releasing on the following tick
+            return simulation.getBirdY() + GameSimulation.BIRD_HEIGHT / 2 > target
+                    && simulation.getVelocityY() > 0
+                    && (simulation.getTick() & 1) == 0;
+        };
+    }
+
+    // A policy is usually given the seed of the game it plays. Seeded with it as is, it would draw
+    // the very numbers that placed the pipes, tying its choices to the gap heights, so use another stream
+    private static XorShiftRandom policyRandom(long seed) {
+        return new XorShiftRandom(seed ^ 0x5DEECE66DL);
+    }
+
+    // Vertical centre of the first opening the bird has not yet cleared, or mid-board if none
+    static int nextOpeningCentre(GameSimulation simulation) {
+        PipeRing pipes = simulation.getPipes();
+        // Pairs are spawned top first, so a top pipe's partner is the next slot
+        for (int i = 0; i + 1 < pipes.size(); i++) {
+            int p = pipes.slot(i);
+            if (pipes.top[p] && pipes.x[p] + GameSimulation.PIPE_WIDTH > GameSimulation.BIRD_X) {
+                int bottom = pipes.slot(i + 1);
+                return (pipes.y[p] + GameSimulation.PIPE_HEIGHT + pipes.y[bottom]) / 2;
+            }
+        }
+        return GameSimulation.BOARD_HEIGHT / 2;
+    }
+}
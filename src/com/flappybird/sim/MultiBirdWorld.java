@@ -0,0 +1,232 @@
+package com.flappybird.sim;
+
+import java.util.Arrays;
+
+// Many birds flying through one shared pipe field, for bot training and ghost races.
+// Bird state is kept as parallel primitive arrays (structure of arrays) and every per-bird pass
+// is a straight loop over them with selects instead of branches, which C2 can unroll and
+// auto-vectorize. All birds share the same x, so which pipes overlap the bird column and which
+// have been passed is decided once per pipe, not once per bird; the per-bird work is just the
+// vertical physics and a swept vertical test per overlapping pipe.
+//
+// The rules match GameSimulation exactly: bird i behaves like a GameSimulation with the same seed
+// and difficulty, started, fed the same inputs. Dead birds stay frozen where they died.
+public final class MultiBirdWorld {
+    private static final int GRAVITY = 1;
+    private static final int PIPE_VELOCITY_X = -4;
+    private static final int FLAP_VELOCITY_Y = -9;
+
+    // Death codes, 0 while alive; ordinal + 1 of GameSimulation.DeathCause
+    private static final int HIT_TOP = GameSimulation.DeathCause.TOP_PIPE.ordinal() + 1;
+    private static final int HIT_BOTTOM = GameSimulation.DeathCause.BOTTOM_PIPE.ordinal() + 1;
+    private static final int FELL = GameSimulation.DeathCause.FELL.ordinal() + 1;
+
+    private final int birds;
+    private final Difficulty difficulty;
+    private final XorShiftRandom random;
+    private final PipeRing pipes = new PipeRing();
+
+    // Per-bird state
+    private final int[] y;
+    private final int[] prevY;
+    private final int[] velocityY;
+    private final int[] held; // 1 while flap is held
+    private final int[] alive; // 1 while flying
+    private final int[] hit; // Death code found this tick, scratch
+    private final int[] deathCode;
+    private final long[] deathTick;
+    private final int[] deathHalfPoints;
+
+    // Shared state
+    private long seed;
+    private long tick;
+    private int halfPoints; // Score of every living bird, in half points
+    private int pipeDelayMillis;
+    private int ticksSinceSpawn;
+    private int aliveCount;
+
+    public MultiBirdWorld(int birds, long seed) {
+        this(birds, seed, Difficulty.DEFAULT);
+    }
+
+    public MultiBirdWorld(int birds, long seed, Difficulty difficulty) {
+        this.birds = birds;
+        this.difficulty = difficulty;
+        this.random = new XorShiftRandom(seed);
+        y = new int[birds];
+        prevY = new int[birds];
+        velocityY = new int[birds];
+        held = new int[birds];
+        alive = new int[birds];
+        hit = new int[birds];
+        deathCode = new int[birds];
+        deathTick = new long[birds];
+        deathHalfPoints = new int[birds];
+        reset(seed);
+    }
+
+    // Every bird back at the start, already playing, over a new pipe field
+    public void reset(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+        pipes.clear();
+        Arrays.fill(y, GameSimulation.BOARD_HEIGHT / 2);
+        Arrays.fill(prevY, GameSimulation.BOARD_HEIGHT / 2);
+        Arrays.fill(velocityY, 0);
+        Arrays.fill(held, 0);
+        Arrays.fill(alive, 1);
+        Arrays.fill(hit, 0);
+        Arrays.fill(deathCode, 0);
+        Arrays.fill(deathTick, 0);
+        Arrays.fill(deathHalfPoints, 0);
+        tick = 0;
+        halfPoints = 0;
+        pipeDelayMillis = difficulty.basePipeDelayMillis();
+        ticksSinceSpawn = 0;
+        aliveCount = birds;
+    }
+
+    // Advance every bird one tick, flap[i] saying whether bird i holds flap; returns birds still alive
+    public int step(boolean[] flap) {
+        tick++;
+        if (aliveCount == 0) return 0;
+
+        if (++ticksSinceSpawn >= spawnIntervalTicks()) {
+            ticksSinceSpawn = 0;
+            spawnPipes();
+            pipeDelayMillis = difficulty.pipeDelayMillis(halfPoints / 2.0);
+        }
+
+        // Vertical physics: flap on a rising edge, then gravity; dead birds keep their state
+        for (int i = 0; i < birds; i++) {
+            int a = alive[i];
+            int f = flap[i] ? 1 : 0;
+            int pressed = f & (held[i] ^ 1) & a;
+            held[i] = f;
+            int v = pressed != 0 ? FLAP_VELOCITY_Y : velocityY[i];
+            v += GRAVITY * a;
+            velocityY[i] = v;
+            int current = y[i];
+            prevY[i] = a != 0 ? current : prevY[i];
+            y[i] = a != 0 ? Math.max(current + v, 0) : current;
+        }
+
+        for (int n = 0; n < pipes.size(); n++) {
+            int p = pipes.slot(n);
+            pipes.prevX[p] = pipes.x[p];
+            pipes.x[p] += PIPE_VELOCITY_X;
+        }
+
+        // Only the pipes near the bird column are tested per bird, found from the cursor as in GameSimulation
+        for (int n = pipes.cursor; n < pipes.size(); n++) {
+            int p = pipes.slot(n);
+            if (pipes.x[p] >= GameSimulation.BIRD_X + GameSimulation.BIRD_WIDTH) break;
+            markHits(p, pipes.top[p] ? HIT_TOP : HIT_BOTTOM);
+        }
+
+        while (pipes.cursor < pipes.size()
+                && GameSimulation.BIRD_X > pipes.x[pipes.slot(pipes.cursor)] + GameSimulation.PIPE_WIDTH) {
+            halfPoints++;
+            pipes.passed[pipes.slot(pipes.cursor++)] = true;
+        }
+        pipes.reclaimOffscreen(GameSimulation.PIPE_WIDTH);
+
+        // Retire birds that hit a pipe or fell out of the board this tick
+        for (int i = 0; i < birds; i++) {
+            int code = hit[i] != 0 ? hit[i] : (y[i] > GameSimulation.BOARD_HEIGHT ? FELL : 0);
+            hit[i] = 0;
+            if (code != 0 && alive[i] != 0) {
+                alive[i] = 0;
+                deathCode[i] = code;
+                deathTick[i] = tick;
+                deathHalfPoints[i] = halfPoints;
+                aliveCount--;
+            }
+        }
+        return aliveCount;
+    }
+
+    // Swept test of every bird against one pipe, the first pipe hit wins. The pipe's window in the
+    // bird column is the same for the whole flock, so only the vertical window is worked out per bird
+    private void markHits(int p, int code) {
+        int lo = GameSimulation.BIRD_X - GameSimulation.PIPE_WIDTH;
+        int hi = GameSimulation.BIRD_X + GameSimulation.BIRD_WIDTH;
+        double columnEntry = GameSimulation.sweepEntry(pipes.prevX[p], pipes.x[p], lo, hi);
+        double columnExit = GameSimulation.sweepExit(pipes.prevX[p], pipes.x[p], lo, hi);
+        int pipeTop = pipes.y[p] - GameSimulation.BIRD_HEIGHT;
+        int pipeBottom = pipes.y[p] + GameSimulation.PIPE_HEIGHT;
+        for (int i = 0; i < birds; i++) {
+            int from = prevY[i];
+            int to = y[i];
+            // The exact window is only worked out for birds whose path spans part of the pipe
+            boolean near = Math.max(from, to) > pipeTop && Math.min(from, to) < pipeBottom;
+            boolean overlaps = near && GameSimulation.sweepOverlaps(columnEntry, columnExit,
+                    GameSimulation.sweepEntry(from, to, pipeTop, pipeBottom),
+                    GameSimulation.sweepExit(from, to, pipeTop, pipeBottom));
+            hit[i] = hit[i] == 0 && overlaps ? code : hit[i];
+        }
+    }
+
+    private void spawnPipes() {
+        int openingSpace = difficulty.opening(halfPoints / 2.0);
+        int topY = (int) (-GameSimulation.PIPE_HEIGHT / 4 - random.nextDouble() * (GameSimulation.PIPE_HEIGHT / 2));
+        pipes.add(GameSimulation.BOARD_WIDTH, topY, true);
+        pipes.add(GameSimulation.BOARD_WIDTH, topY + GameSimulation.PIPE_HEIGHT + openingSpace, false);
+    }
+
+    private int spawnIntervalTicks() {
+        return (pipeDelayMillis * GameSimulation.TICKS_PER_SECOND + 999) / 1000;
+    }
+
+    public int getBirdCount() {
+        return birds;
+    }
+
+    public int getAliveCount() {
+        return aliveCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public boolean isAlive(int bird) {
+        return alive[bird] != 0;
+    }
+
+    public int getBirdY(int bird) {
+        return y[bird];
+    }
+
+    public int getPrevBirdY(int bird) {
+        return prevY[bird];
+    }
+
+    public int getVelocityY(int bird) {
+        return velocityY[bird];
+    }
+
+    // Points scored so far by a living bird, or at death
+    public double getScore(int bird) {
+        return (alive[bird] != 0 ? halfPoints : deathHalfPoints[bird]) / 2.0;
+    }
+
+    // Tick the bird died on, 0 while alive
+    public long getDeathTick(int bird) {
+        return deathTick[bird];
+    }
+
+    // Null while alive
+    public GameSimulation.DeathCause getDeathCause(int bird) {
+        return deathCode[bird] == 0 ? null : GameSimulation.DeathCause.values()[deathCode[bird] - 1];
+    }
+
+    // Shared pipe field, read-only outside the world
+    public PipeRing getPipes() {
+        return pipes;
+    }
+}
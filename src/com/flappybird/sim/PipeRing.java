@@ -0,0 +1,64 @@
+package com.flappybird.sim;
+
+// Fixed-capacity ring buffer of pipe slots stored as parallel primitive arrays.
+// Pipes are appended at the tail in spawn order, so the head is always the leftmost pipe
+// and offscreen pipes are reclaimed from the head without allocating or shifting.
+// Since every pipe moves at the same speed, x never decreases along the ring; the simulation
+// relies on that to find the pipes near the bird from a cursor instead of scanning them all.
+// The arrays are exposed for renderers to read; only the simulation writes them.
+public final class PipeRing {
+    // 8 pairs: a pipe crosses the board in under two seconds, so this holds every pair on screen
+    // as long as pairs spawn at least GameSimulation.MIN_PIPE_DELAY_MILLIS apart, which Difficulty enforces
+    public static final int CAPACITY = 16;
+    private static final int MASK = CAPACITY - 1;
+
+    public final int[] x = new int[CAPACITY];
+    public final int[] prevX = new int[CAPACITY]; // Position at the previous tick, for interpolation
+    public final int[] y = new int[CAPACITY];
+    public final boolean[] passed = new boolean[CAPACITY];
+    public final boolean[] top = new boolean[CAPACITY];
+
+    private int head = 0;
+    private int size = 0;
+
+    // Live index of the first pipe the bird has not cleared; every pipe before it is behind the bird for good
+    int cursor = 0;
+
+    public int size() {
+        return size;
+    }
+
+    // Slot index of the i-th live pipe, counted from the leftmost
+    public int slot(int i) {
+        return (head + i) & MASK;
+    }
+
+    // Claim the next free slot. A full ring means pipes spawn faster than they leave the screen
+    int add(int pipeX, int pipeY, boolean isTop) {
+        if (size == CAPACITY) {
+            throw new IllegalStateException("Pipe ring is full, every one of its " + CAPACITY + " pipes is still on screen");
+        }
+        int slot = slot(size++);
+        x[slot] = pipeX;
+        prevX[slot] = pipeX;
+        y[slot] = pipeY;
+        passed[slot] = false;
+        top[slot] = isTop;
+        return slot;
+    }
+
+    // Release pipes that have fully left the screen on the left
+    void reclaimOffscreen(int width) {
+        while (size > 0 && x[head] + width < 0) {
+            head = (head + 1) & MASK;
+            size--;
+            cursor = Math.max(cursor - 1, 0);
+        }
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+        cursor = 0;
+    }
+}
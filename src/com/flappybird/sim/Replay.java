@@ -0,0 +1,215 @@
+package com.flappybird.sim;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// A recorded run: the seed, whether it began past the start screen, and the flap input of every tick.
+// GameSimulation is deterministic, so that is all it takes to play the run again, headless at
+// millions of ticks per second or drawn at any speed. Replays are for the shipped difficulty curve.
+//
+// File format, every number an unsigned LEB128 varint:
+//   "FBR" 1                   magic and format version
+//   flags                     bit 0: started, the run skipped the start screen as a restart does
+//   seed                      the simulation seed, as an unsigned 64-bit value
+//   ticks                     number of recorded ticks
+//   run lengths...            alternately released and held, starting released, summing to ticks;
+//                             only the first may be 0
+// A tap lasting a few ticks every half second takes two or three bytes, a few hundred per minute.
+public final class Replay {
+    public static final String FILE_EXTENSION = ".fbr";
+
+    private static final byte[] MAGIC = {'F', 'B', 'R', 1};
+    private static final int STARTED_FLAG = 1;
+
+    private final long seed;
+    private final boolean started;
+    private final long ticks;
+    private final int[] runs; // Alternately released and held tick counts, starting released
+
+    private Replay(long seed, boolean started, long ticks, int[] runs) {
+        this.seed = seed;
+        this.started = started;
+        this.ticks = ticks;
+        this.runs = runs;
+    }
+
+    // Start recording a run on a simulation just reset with this seed, started if start() was called
+    public static Recorder record(long seed, boolean started) {
+        return new Recorder(seed, started);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    // Reset the simulation to this replay's seed and feed it every recorded tick.
+    // Allocates nothing, so one simulation can play any number of replays in turn
+    public GameSimulation playInto(GameSimulation simulation) {
+        simulation.reset(seed);
+        if (started) simulation.start();
+        boolean flap = false;
+        for (int run : runs) {
+            for (int i = 0; i < run; i++) {
+                simulation.step(flap);
+            }
+            flap = !flap;
+        }
+        return simulation;
+    }
+
+    // Play the whole run on a fresh simulation and return it at its final tick
+    public GameSimulation play() {
+        return playInto(new GameSimulation(seed));
+    }
+
+    // Inputs one tick at a time, for playback at a chosen pace
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private int run = 0;
+        private int left = runs.length > 0 ? runs[0] : 0;
+
+        private Cursor() {
+        }
+
+        public boolean hasNext() {
+            while (left == 0 && run + 1 < runs.length) {
+                left = runs[++run];
+            }
+            return left > 0;
+        }
+
+        // Flap input for the next tick; call hasNext() first
+        public boolean next() {
+            if (!hasNext()) throw new IllegalStateException("Replay has no more ticks");
+            left--;
+            return (run & 1) == 1;
+        }
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + runs.length * 2);
+        out.write(MAGIC, 0, MAGIC.length);
+        writeVarint(out, started ? STARTED_FLAG : 0);
+        writeVarint(out, seed);
+        writeVarint(out, ticks);
+        for (int run : runs) {
+            writeVarint(out, run);
+        }
+        return out.toByteArray();
+    }
+
+    // Parse a replay, rejecting anything malformed or truncated. Safe on untrusted input:
+    // nothing is allocated beyond a run per input byte
+    public static Replay fromBytes(byte[] data) throws IOException {
+        if (data.length < MAGIC.length || !Arrays.equals(data, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IOException("Not a replay, or an unsupported format version");
+        }
+        Reader in = new Reader(data, MAGIC.length);
+        long flags = in.varint();
+        if ((flags & ~STARTED_FLAG) != 0) throw new IOException("Malformed replay: unknown flags " + flags);
+        long seed = in.varint();
+        long ticks = in.varint();
+        if (ticks < 0) throw new IOException("Malformed replay: tick count out of range");
+
+        int[] runs = new int[data.length - in.position];
+        int count = 0;
+        long total = 0;
+        while (total < ticks) {
+            long run = in.varint();
+            if (run > Integer.MAX_VALUE || (run == 0 && count > 0) || run > ticks - total) {
+                throw new IOException("Malformed replay: bad run length at byte " + in.position);
+            }
+            runs[count++] = (int) run;
+            total += run;
+        }
+        if (in.position != data.length) throw new IOException("Malformed replay: trailing bytes");
+        return new Replay(seed, (flags & STARTED_FLAG) != 0, ticks, Arrays.copyOf(runs, count));
+    }
+
+    public void write(Path path) throws IOException {
+        Files.write(path, toBytes());
+    }
+
+    public static Replay read(Path path) throws IOException {
+        return fromBytes(Files.readAllBytes(path));
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        long varint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.length) throw new IOException("Malformed replay: truncated");
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IOException("Malformed replay: varint too long");
+        }
+    }
+
+    // Collects one run's input as it is played. Not thread-safe; feed it from the thread that steps
+    public static final class Recorder {
+        private final long seed;
+        private final boolean started;
+        private int[] runs = new int[64];
+        private int count = 1; // The current run is runs[count - 1], the first one released
+        private long ticks = 0;
+
+        private Recorder(long seed, boolean started) {
+            this.seed = seed;
+            this.started = started;
+        }
+
+        // The input that was passed to step() this tick
+        public void record(boolean flap) {
+            boolean current = ((count - 1) & 1) == 1;
+            if (flap != current) {
+                if (count == runs.length) {
+                    runs = Arrays.copyOf(runs, count * 2);
+                }
+                runs[count++] = 0;
+            }
+            runs[count - 1]++;
+            ticks++;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        // The input recorded so far; recording can carry on afterwards
+        public Replay finish() {
+            return new Replay(seed, started, ticks, Arrays.copyOf(runs, ticks == 0 ? 0 : count));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.flappybird.sim;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Plays replay files headless and prints how each run ended, with how much faster than real time it ran.
+// Usage: ReplayPlayer file.fbr...
+final class ReplayPlayer {
+    private ReplayPlayer() {
+    }
+
+    public static void main(String[] args) {
+        GameSimulation simulation = new GameSimulation(0);
+        for (String file : args) {
+            try {
+                Replay replay = Replay.read(Path.of(file));
+                long start = System.nanoTime();
+                replay.playInto(simulation);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                double played = (double) replay.getTicks() / GameSimulation.TICKS_PER_SECOND;
+                System.out.printf("%s: score %d, %s after %d ticks (%.1fs of play), %.2fms, %.0fx real time%n",
+                        file, (int) simulation.getScore(),
+                        simulation.getDeathCause() != null ? simulation.getDeathCause() : "alive",
+                        replay.getTicks(), played, seconds * 1e3, played / Math.max(seconds, 1e-9));
+            } catch (IOException e) {
+                System.err.println("Error reading replay " + file + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.flappybird.sim;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+// Accepts a claimed score only if playing its replay again ends in a death with that same score.
+// Checks run on a fixed pool of workers, each reusing one GameSimulation, so a check costs
+// its ticks and nothing more: tens of nanoseconds a tick, thousands of minute-long runs a
+// second per core. Spam can't buy unbounded work: replays longer than maxTicks are refused
+// before a tick is simulated, and submissions that find the queue full are refused as BUSY.
+//
+// A replay proves the score follows from its input and seed, not that the seed was dealt fairly:
+// a client free to choose it could search seeds offline for an easy pipe layout. submitIssued()
+// only accepts seeds this verifier handed out with issueSeed(), unpredictable and good for one
+// submission each. That stops searched and reused seeds; it cannot stop code in the same process
+// that calls issueSeed() itself until it gets a layout it likes.
+public final class ReplayVerifier implements AutoCloseable {
+    public enum Verdict {
+        ACCEPTED,
+        SCORE_MISMATCH, // The run ends with a different score
+        UNFINISHED, // The bird is still alive when the input runs out
+        TOO_LONG, // More ticks than this verifier will simulate
+        MALFORMED, // Not a readable replay
+        UNKNOWN_SEED, // Played on a seed that was never issued, was already used or has expired
+        BUSY // The queue was full, nothing was checked
+    }
+
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+    private static final int MAX_ISSUED_SEEDS = 64; // Runs that may still be submitted, older seeds expire
+
+    private final ThreadPoolExecutor workers;
+    private final long maxTicks;
+    private final ThreadLocal<GameSimulation> simulations = ThreadLocal.withInitial(() -> new GameSimulation(0));
+    private final AtomicLongArray verdicts = new AtomicLongArray(Verdict.values().length);
+    private final SecureRandom seedSource = new SecureRandom();
+    private final Set<Long> issuedSeeds = new LinkedHashSet<>(); // Guarded by itself, oldest first
+
+    public ReplayVerifier(int threads, int queueCapacity, long maxTicks) {
+        this.maxTicks = maxTicks;
+        int pool = POOL_COUNT.incrementAndGet();
+        AtomicInteger workerCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "flappybird-verifier-" + pool + "-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Check an encoded replay on the worker pool. Parsing is linear in the bytes, so it happens here
+    public CompletableFuture<Verdict> submit(byte[] replay, int claimedScore) {
+        try {
+            return submit(Replay.fromBytes(replay), claimedScore);
+        } catch (IOException e) {
+            return CompletableFuture.completedFuture(count(Verdict.MALFORMED));
+        }
+    }
+
+    // Check a decoded replay on the worker pool
+    public CompletableFuture<Verdict> submit(Replay replay, int claimedScore) {
+        return submit(() -> verify(replay, claimedScore));
+    }
+
+    // Check a replay on the worker pool, if it was played on a seed from issueSeed() that hasn't been used yet.
+    // The seed is used up once the check runs, a BUSY submission can try again
+    public CompletableFuture<Verdict> submitIssued(Replay replay, int claimedScore) {
+        return submit(() -> redeem(replay.getSeed()) ? verify(replay, claimedScore) : count(Verdict.UNKNOWN_SEED));
+    }
+
+    // An unpredictable seed for a run about to start, redeemable once by submitIssued()
+    public long issueSeed() {
+        long seed = seedSource.nextLong();
+        synchronized (issuedSeeds) {
+            issuedSeeds.add(seed);
+            if (issuedSeeds.size() > MAX_ISSUED_SEEDS) {
+                issuedSeeds.remove(issuedSeeds.iterator().next());
+            }
+        }
+        return seed;
+    }
+
+    private boolean redeem(long seed) {
+        synchronized (issuedSeeds) {
+            return issuedSeeds.remove(seed);
+        }
+    }
+
+    private CompletableFuture<Verdict> submit(Supplier<Verdict> check) {
+        try {
+            return CompletableFuture.supplyAsync(check, workers);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(count(Verdict.BUSY));
+        }
+    }
+
+    // Check an encoded replay on the calling thread
+    public Verdict verify(byte[] replay, int claimedScore) {
+        try {
+            return verify(Replay.fromBytes(replay), claimedScore);
+        } catch (IOException e) {
+            return count(Verdict.MALFORMED);
+        }
+    }
+
+    // Check a decoded replay on the calling thread
+    public Verdict verify(Replay replay, int claimedScore) {
+        if (replay.getTicks() > maxTicks) return count(Verdict.TOO_LONG);
+
+        GameSimulation simulation = replay.playInto(simulations.get());
+        if (!simulation.isGameOver()) return count(Verdict.UNFINISHED);
+        if ((int) simulation.getScore() != claimedScore) return count(Verdict.SCORE_MISMATCH);
+        return count(Verdict.ACCEPTED);
+    }
+
+    private Verdict count(Verdict verdict) {
+        verdicts.incrementAndGet(verdict.ordinal());
+        return verdict;
+    }
+
+    // Replays given each verdict so far
+    public long getCount(Verdict verdict) {
+        return verdicts.get(verdict.ordinal());
+    }
+
+    public long getMaxTicks() {
+        return maxTicks;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+}
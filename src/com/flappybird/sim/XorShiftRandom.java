@@ -0,0 +1,33 @@
+package com.flappybird.sim;
+
+// Small seedable generator (xorshift64*) owned by one simulation.
+// Unlike Math.random() it has no shared state, so runs with the same seed and inputs are
+// identical no matter how many other simulations are running.
+public final class XorShiftRandom {
+    private long state;
+
+    public XorShiftRandom(long seed) {
+        setSeed(seed);
+    }
+
+    public void setSeed(long seed) {
+        // Spread the seed (splitmix64 finalizer) so nearby seeds diverge; state must never be 0
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        state = z == 0 ? 0x9E3779B97F4A7C15L : z;
+    }
+
+    public long nextLong() {
+        state ^= state >>> 12;
+        state ^= state << 25;
+        state ^= state >>> 27;
+        return state * 0x2545F4914F6CDD1DL;
+    }
+
+    // Uniform in [0, 1)
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+}